@@ -0,0 +1,55 @@
+package com.wnowakcraft.logging.benchmarks;
+
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.LegacyAbstractLogger;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * Logger with INFO level enabled and DEBUG level disabled, which formats messages the way
+ * a real appender would, but discards them instead of writing them anywhere.
+ * This way benchmarks measure the cost of the library, not of I/O.
+ */
+class BenchmarkLogger extends LegacyAbstractLogger {
+    private static final long serialVersionUID = 1L;
+    private volatile int formattedMessageLength;
+
+    BenchmarkLogger(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return true;
+    }
+
+    @Override
+    protected String getFullyQualifiedCallerName() {
+        return null;
+    }
+
+    @Override
+    protected void handleNormalizedLoggingCall(Level level, Marker marker, String messagePattern, Object[] arguments, Throwable throwable) {
+        formattedMessageLength = MessageFormatter.basicArrayFormat(messagePattern, arguments).length();
+    }
+}
@@ -0,0 +1,33 @@
+package com.wnowakcraft.logging.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks at several thread counts, with allocation figures of the GC profiler.
+ * Regular JMH command line options can be passed to narrow the run, e.g. a benchmark name regexp.
+ */
+public class BenchmarkRunner {
+    private static final int[] THREAD_COUNTS = { 1, 2, 4, 8 };
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        var commandLineOptions = new CommandLineOptions(args);
+
+        for(var threads : THREAD_COUNTS) {
+            var options = new OptionsBuilder()
+                    .parent(commandLineOptions)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class);
+
+            if(commandLineOptions.getIncludes().isEmpty()) {
+                options.include(LogAspectBenchmark.class.getSimpleName());
+            }
+
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.wnowakcraft.logging.benchmarks;
+
+/**
+ * Sample domain object with a few levels of nested members, used in deep member chain templates.
+ */
+public class Customer {
+    private final String id;
+    private final Address address;
+
+    public Customer(String id, Address address) {
+        this.id = id;
+        this.address = address;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Address getAddress() {
+        return address;
+    }
+
+    public static class Address {
+        private final City city;
+
+        public Address(City city) {
+            this.city = city;
+        }
+
+        public City getCity() {
+            return city;
+        }
+    }
+
+    public static class City {
+        private final String name;
+
+        public City(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.wnowakcraft.logging.benchmarks;
+
+import com.wnowakcraft.logging.CaptureSettings;
+import com.wnowakcraft.logging.LogCapture;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of annotated method invocations, compared to a method with no annotation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogAspectBenchmark {
+    private final SampleService sampleService = new SampleService();
+    private final Customer customer = new Customer("c-1", new Customer.Address(new Customer.City("Warsaw")));
+    private final Object someObject = new Object();
+    private int value;
+
+    @Benchmark
+    public int notAnnotated() {
+        return sampleService.notAnnotated(value++);
+    }
+
+    @Benchmark
+    public int disabledLevel() {
+        return sampleService.disabledLevel(value++);
+    }
+
+    @Benchmark
+    public int noParams() {
+        return sampleService.noParams(value++);
+    }
+
+    @Benchmark
+    public int oneParam() {
+        return sampleService.oneParam(value++);
+    }
+
+    @Benchmark
+    public int threeParams() {
+        return sampleService.threeParams(value++, "second", 3L);
+    }
+
+    @Benchmark
+    public int threeParamsCaptured(CaptureFileState captureFileState) {
+        return sampleService.threeParamsCaptured(value++, "second", 3L);
+    }
+
+    @Benchmark
+    public int eightParams() {
+        return sampleService.eightParams(value++, "p1", 2L, 3.0, "p4", 5, true, someObject);
+    }
+
+    @Benchmark
+    public int deepMemberChain() {
+        return sampleService.deepMemberChain(customer);
+    }
+
+    @Benchmark
+    public Optional<String> optionalResult() {
+        return sampleService.optionalResult("value");
+    }
+
+    @Benchmark
+    public int repeatedAfterEntries() {
+        return sampleService.repeatedAfterEntries(value++);
+    }
+
+    /**
+     * Capture file shared by all the benchmark threads, since {@link LogCapture} is configured globally.
+     */
+    @State(Scope.Benchmark)
+    public static class CaptureFileState {
+        private Path captureFile;
+
+        @Setup
+        public void configureCapture() throws IOException {
+            captureFile = Files.createTempFile("benchmark", ".capture");
+            LogCapture.configure(CaptureSettings.builder().file(captureFile).build());
+        }
+
+        @TearDown
+        public void disableCapture() throws IOException {
+            LogCapture.configure(CaptureSettings.builder().build());
+            Files.deleteIfExists(captureFile);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.wnowakcraft.logging.benchmarks;
+
+import com.wnowakcraft.logging.Level;
+import com.wnowakcraft.logging.LogAfter;
+import com.wnowakcraft.logging.LogBefore;
+import com.wnowakcraft.logging.LogOutput;
+import org.slf4j.Logger;
+
+import java.util.Optional;
+
+/**
+ * Woven sample methods covering the shapes of log statements used in benchmarks.
+ * Every method does the same trivial work, so the differences come from the log statements only.
+ */
+public class SampleService {
+    private static final Logger log = new BenchmarkLogger(SampleService.class.getName());
+
+    public int notAnnotated(int value) {
+        return value + 1;
+    }
+
+    @LogBefore("Disabled level {p0}")
+    public int disabledLevel(int value) {
+        return value + 1;
+    }
+
+    @LogBefore(value = "Invoked with no params", level = Level.INFO)
+    public int noParams(int value) {
+        return value + 1;
+    }
+
+    @LogBefore(value = "Invoked with {p0}", level = Level.INFO)
+    public int oneParam(int value) {
+        return value + 1;
+    }
+
+    @LogBefore(value = "Invoked with {p0}, {p1} and {p2}", level = Level.INFO)
+    public int threeParams(int value, String second, long third) {
+        return value + 1;
+    }
+
+    @LogBefore(value = "Invoked with {p0}, {p1} and {p2}", level = Level.INFO, output = LogOutput.CAPTURE)
+    public int threeParamsCaptured(int value, String second, long third) {
+        return value + 1;
+    }
+
+    @LogBefore(value = "Invoked with {p0}, {p1}, {p2}, {p3}, {p4}, {p5}, {p6} and {p7}", level = Level.INFO)
+    public int eightParams(int value, String p1, long p2, double p3, String p4, int p5, boolean p6, Object p7) {
+        return value + 1;
+    }
+
+    @LogBefore(value = "Customer {p0.getId()} from {p0.getAddress().getCity().getName()}", level = Level.INFO)
+    public int deepMemberChain(Customer customer) {
+        return customer.getId().length();
+    }
+
+    @LogAfter(value = "Found {r}", level = Level.INFO)
+    public Optional<String> optionalResult(String value) {
+        return Optional.ofNullable(value);
+    }
+
+    @LogAfter(value = "First after {p0}", level = Level.INFO)
+    @LogAfter(value = "Second after {r}", level = Level.INFO)
+    @LogAfter(value = "Third after {p0} -> {r}", level = Level.INFO)
+    public int repeatedAfterEntries(int value) {
+        return value + 1;
+    }
+}
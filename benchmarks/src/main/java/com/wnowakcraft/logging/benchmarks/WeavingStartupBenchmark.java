@@ -0,0 +1,167 @@
+package com.wnowakcraft.logging.benchmarks;
+
+import org.aspectj.weaver.loadtime.Aj;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Measures how long AspectJ load-time weaver takes to process the classes of an application, depending on
+ * the number of classes and on whether weaving is restricted to the package of annotated classes.
+ * One in ten generated classes has an annotated method; all of them have ten methods.
+ * Every invocation uses a fresh class loader, so no class was woven before, as at application startup.
+ * The weaver of the class loader is initialized upfront, so reading the configuration and the aspect isn't measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WeavingStartupBenchmark {
+    private static final String ANNOTATED_PACKAGE = "generated.annotated";
+    private static final String PLAIN_PACKAGE = "generated.plain";
+    private static final String BOOTSTRAP_CLASS = "generated.Bootstrap";
+    private static final int METHODS_PER_CLASS = 10;
+    private static final int ANNOTATED_CLASS_EVERY = 10;
+
+    @Param({ "100", "1000" })
+    private int classes;
+
+    @Param({ "ALL", "SCOPED" })
+    private WeavingScope weavingScope;
+
+    private Path workDirectory;
+    private Map<String, byte[]> classFiles;
+    private byte[] bootstrapClassFile;
+    private URL[] classLoaderPath;
+    private URLClassLoader classLoader;
+    private Aj weaver;
+
+    public enum WeavingScope {
+        ALL(""),
+        SCOPED("<include within=\"" + ANNOTATED_PACKAGE + "..*\"/>");
+
+        private final String includes;
+
+        WeavingScope(String includes) {
+            this.includes = includes;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void generateClasses() throws IOException {
+        workDirectory = Files.createTempDirectory("weaving-startup-benchmark");
+        var sourceFiles = new ArrayList<String>();
+        sourceFiles.add(writeSource("generated", "Bootstrap", false));
+
+        for(var i = 0; i < classes; i++) {
+            var annotated = i % ANNOTATED_CLASS_EVERY == 0;
+            sourceFiles.add(writeSource(annotated ? ANNOTATED_PACKAGE : PLAIN_PACKAGE, "Type" + i, annotated));
+        }
+
+        var classesDirectory = workDirectory.resolve("classes");
+        compile(sourceFiles, classesDirectory);
+        classFiles = readClassFiles(classesDirectory);
+        bootstrapClassFile = classFiles.remove(BOOTSTRAP_CLASS);
+
+        var configurationDirectory = workDirectory.resolve("configuration");
+        Files.createDirectories(configurationDirectory.resolve("META-INF"));
+        Files.writeString(configurationDirectory.resolve("META-INF/aop.xml"), aopXml(), UTF_8);
+
+        classLoaderPath = new URL[] { configurationDirectory.toUri().toURL() };
+    }
+
+    @Setup(Level.Invocation)
+    public void createWeaver() {
+        classLoader = new URLClassLoader(classLoaderPath, WeavingStartupBenchmark.class.getClassLoader());
+        weaver = new Aj();
+        weaver.preProcess(BOOTSTRAP_CLASS, bootstrapClassFile, classLoader, null);
+    }
+
+    @Benchmark
+    public void weaveAllClasses(Blackhole blackhole) {
+        for(var classFile : classFiles.entrySet()) {
+            blackhole.consume(weaver.preProcess(classFile.getKey(), classFile.getValue(), classLoader, null));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeClassLoader() throws IOException {
+        classLoader.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteClasses() throws IOException {
+        try(Stream<Path> files = Files.walk(workDirectory)) {
+            for(var file : files.sorted((first, second) -> second.compareTo(first)).collect(toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private String writeSource(String packageName, String className, boolean annotated) throws IOException {
+        var source = new StringBuilder("package " + packageName + ";\n")
+                .append("public class ").append(className).append(" {\n");
+
+        for(var i = 0; i < METHODS_PER_CLASS; i++) {
+            if(annotated && i == 0) {
+                source.append("    @com.wnowakcraft.logging.LogBefore(\"method0 {p0}\")\n");
+            }
+            source.append("    public int method").append(i).append("(int value) { return value + ").append(i).append("; }\n");
+        }
+        source.append("}\n");
+
+        var sourceFile = workDirectory.resolve("sources").resolve(packageName.replace('.', '/')).resolve(className + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, source, UTF_8);
+        return sourceFile.toString();
+    }
+
+    private static void compile(List<String> sourceFiles, Path classesDirectory) {
+        var arguments = new ArrayList<>(List.of("-proc:none", "-classpath", System.getProperty("java.class.path"),
+                "-d", classesDirectory.toString()));
+        arguments.addAll(sourceFiles);
+
+        var result = ToolProvider.getSystemJavaCompiler().run(null, null, null, arguments.toArray(String[]::new));
+        if(result != 0) {
+            throw new IllegalStateException("Couldn't compile generated classes");
+        }
+    }
+
+    private static Map<String, byte[]> readClassFiles(Path classesDirectory) throws IOException {
+        var classFiles = new LinkedHashMap<String, byte[]>();
+
+        try(Stream<Path> files = Files.walk(classesDirectory)) {
+            for(var classFile : files.filter(file -> file.toString().endsWith(".class")).sorted().collect(toList())) {
+                var relativePath = classesDirectory.relativize(classFile).toString();
+                var className = relativePath.substring(0, relativePath.length() - ".class".length()).replace('/', '.');
+                classFiles.put(className, Files.readAllBytes(classFile));
+            }
+        }
+
+        return classFiles;
+    }
+
+    private String aopXml() {
+        return "<aspectj>\n" +
+                "    <aspects><aspect name=\"com.wnowakcraft.logging.LogAspect\"/></aspects>\n" +
+                "    <weaver>" + weavingScope.includes + "</weaver>\n" +
+                "</aspectj>\n";
+    }
+}
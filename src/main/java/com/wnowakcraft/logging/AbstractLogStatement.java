@@ -0,0 +1,189 @@
+package com.wnowakcraft.logging;
+
+import com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver;
+import com.wnowakcraft.logging.TemplateFailureSettings.DegradedMode;
+import org.slf4j.Logger;
+import org.slf4j.spi.LoggingEventBuilder;
+
+import java.util.Arrays;
+
+/**
+ * Log statement with its message template already compiled, and its settings overridable at runtime
+ * by {@link LogStatements}. Evaluation of the template is guarded by a {@link TemplateCircuitBreaker}:
+ * if it keeps failing, the statement is degraded, its failures are no longer thrown,
+ * and messages are logged with placeholders in place of the params, unless they are skipped.
+ */
+abstract class AbstractLogStatement implements ControlledStatement {
+    private static final String DEGRADED_PARAM_MARKER = "<unavailable>";
+    private final String id;
+    private final String methodName;
+    private final String template;
+    private final StatementSettings annotatedSettings;
+    private volatile StatementSettings settings;
+    private final RuntimeException templateCompilationError;
+    private final TemplateCircuitBreaker circuitBreaker;
+    protected final LogOutput output;
+    protected final LogMessageParamsResolver messageTemplate;
+    protected final Object[] degradedParams;
+    protected final ParamRenderer paramRenderer;
+    protected final LoggingStats stats;
+
+    AbstractLogStatement(String id, String methodName, StatementSettings annotatedSettings, LogOutput output,
+                         ParamRenderer paramRenderer, String messageTemplate, LoggingStats stats) {
+        LogMessageParamsResolver compiledMessageTemplate = null;
+        RuntimeException compilationError = null;
+
+        try {
+            compiledMessageTemplate = LogMessageParamsResolver.forMessageTemplate(messageTemplate);
+        } catch (RuntimeException ex) {
+            compilationError = ex;
+        }
+
+        this.id = id;
+        this.methodName = methodName;
+        this.template = messageTemplate;
+        this.annotatedSettings = annotatedSettings;
+        this.settings = annotatedSettings;
+        this.templateCompilationError = compilationError;
+        this.circuitBreaker = TemplateCircuitBreaker.of(messageTemplate);
+        this.output = output;
+        this.messageTemplate = compiledMessageTemplate;
+        this.degradedParams = compiledMessageTemplate != null ? degradedParams(compiledMessageTemplate.getParamsCount()) : null;
+        this.paramRenderer = paramRenderer;
+        this.stats = stats;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getMethodName() {
+        return methodName;
+    }
+
+    @Override
+    public String getTemplate() {
+        return template;
+    }
+
+    @Override
+    public StatementSettings getAnnotatedSettings() {
+        return annotatedSettings;
+    }
+
+    @Override
+    public StatementSettings getSettings() {
+        return settings;
+    }
+
+    @Override
+    public void setSettings(StatementSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Tells whether the statement is enabled, and its level is enabled by the logger.
+     *
+     * @param settings settings of the statement read once for the current invocation by {@link #getSettings()},
+     *                 so the whole invocation is logged according to the same settings, even if they're overridden
+     */
+    boolean isEnabled(Logger logger, StatementSettings settings) {
+        if(settings.isEnabled() && settings.getLevel().isEnabled(logger)) {
+            return true;
+        }
+
+        stats.recordSkippedByLevel();
+        return false;
+    }
+
+    /**
+     * Evaluates the template with the given resolver and logs the message, unless the statement is degraded.
+     *
+     * @param settings settings of the statement the invocation was checked against
+     * @param exception exception thrown by the method, or null if it's not logged on error
+     */
+    void log(Logger logger, StatementSettings settings, ExpressionResolver expressionResolver, Throwable exception) {
+        if(!circuitBreaker.allowsEvaluation()) {
+            logDegradedUnlessSkipped(logger, settings, exception);
+            return;
+        }
+
+        try {
+            if(templateCompilationError != null) {
+                throw templateCompilationError;
+            }
+
+            logEvaluated(logger, settings, expressionResolver, exception);
+            circuitBreaker.recordSuccess();
+        } catch (RuntimeException ex) {
+            recordFailure(ex);
+            logDegradedUnlessSkipped(logger, settings, exception);
+        }
+    }
+
+    /**
+     * Counts the failure of the statement and passes it to its circuit breaker,
+     * which rethrows it unless the statement is degraded.
+     */
+    void recordFailure(RuntimeException failure) {
+        stats.recordFailure();
+        if(circuitBreaker.recordFailure(failure)) {
+            throw failure;
+        }
+    }
+
+    abstract void logEvaluated(Logger logger, StatementSettings settings, ExpressionResolver expressionResolver,
+                               Throwable exception);
+
+    abstract void logDegraded(Logger logger, StatementSettings settings, Throwable exception);
+
+    Object[] resolveParams(ExpressionResolver expressionResolver) {
+        var evaluationStartNanos = System.nanoTime();
+        var params = messageTemplate.getParamsReferredInTemplate(expressionResolver);
+        paramRenderer.renderAll(params);
+        stats.recordEvaluation(System.nanoTime() - evaluationStartNanos);
+        return params;
+    }
+
+    /**
+     * Returns a builder of the event at the given level, with the params added as key-value pairs,
+     * to which further key-value pairs can be added before it's logged by {@link #logKeyValues}.
+     */
+    LoggingEventBuilder atLevelWithKeyValues(Logger logger, Level level, Object[] params) {
+        return messageTemplate.addKeyValues(level.atLevel(logger), params);
+    }
+
+    /**
+     * Logs the event either with the message of its keys, or with the given message, depending on the output.
+     */
+    void logKeyValues(LoggingEventBuilder eventBuilder, String messagePattern, Object[] messageParams) {
+        if(output == LogOutput.KEY_VALUES) {
+            eventBuilder.log(messageTemplate.getKeyValuesLogMessage());
+        } else {
+            eventBuilder.log(messagePattern, messageParams);
+        }
+        stats.recordEmitted();
+    }
+
+    static Object[] appended(Object[] params, Object... extraParams) {
+        var logMessageParams = Arrays.copyOf(params, params.length + extraParams.length);
+        System.arraycopy(extraParams, 0, logMessageParams, params.length, extraParams.length);
+        return logMessageParams;
+    }
+
+    private void logDegradedUnlessSkipped(Logger logger, StatementSettings settings, Throwable exception) {
+        if(messageTemplate == null || circuitBreaker.getDegradedMode() == DegradedMode.SKIP) {
+            return;
+        }
+
+        logDegraded(logger, settings, exception);
+    }
+
+    private static Object[] degradedParams(int paramsCount) {
+        var params = new Object[paramsCount];
+        Arrays.fill(params, DEGRADED_PARAM_MARKER);
+        return params;
+    }
+}
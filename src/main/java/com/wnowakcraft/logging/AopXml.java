@@ -0,0 +1,44 @@
+package com.wnowakcraft.logging;
+
+import java.util.Collection;
+
+/**
+ * Generates AspectJ load-time weaving configuration declaring {@link LogAspect},
+ * with weaving restricted to the given types.
+ */
+final class AopXml {
+    static final String LOCATION = "META-INF/aop.xml";
+
+    private AopXml() { }
+
+    /**
+     * @param includedTypes AspectJ type patterns of the types to be woven, e.g. <pre>com.acme.OrderService</pre>
+     *                      or <pre>com.acme..*</pre>; when empty, all types are woven
+     */
+    static String of(Collection<String> includedTypes) {
+        var aopXml = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<aspectj>\n")
+                .append("    <aspects>\n")
+                .append("        <aspect name=\"").append(LogAspect.class.getName()).append("\"/>\n")
+                .append("    </aspects>\n")
+                .append("    <weaver>\n");
+
+        for(var includedType : includedTypes) {
+            aopXml.append("        <include within=\"").append(escape(includedType)).append("\"/>\n");
+        }
+
+        return aopXml
+                .append("    </weaver>\n")
+                .append("</aspectj>\n")
+                .toString();
+    }
+
+    private static String escape(String value) {
+        return value
+                .replace("&", "&amp;")
+                .replace("\"", "&quot;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,240 @@
+package com.wnowakcraft.logging;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dispatches log statements to be evaluated and logged by background workers.
+ * The calling thread only publishes the captured invocation to a ring buffer,
+ * while evaluation of template expressions and logging itself happen on worker threads.
+ * <p>
+ * A worker finding no events spins for a while, then parks until a calling thread publishes an event and unparks it,
+ * so idle workers don't wake up when nothing is logged.
+ * <p>
+ * Once the dispatcher is shut down, events are logged synchronously by the calling thread. An event published
+ * while the workers were stopping is logged by the calling thread as well, with any other pending events,
+ * so no event is left in the buffer.
+ */
+class AsyncLogDispatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncLogDispatcher.class);
+    private static final long FLUSH_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long BLOCKED_PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final int IDLE_WORKER_SPINS = 100;
+
+    private final AsyncLoggingSettings settings;
+    private final LogEventRingBuffer<LogEvent> pendingEvents;
+    private final List<Thread> workers = new ArrayList<>();
+    private final Queue<Thread> parkedWorkers = new ConcurrentLinkedQueue<>();
+    private final LongAdder publishedEvents = new LongAdder();
+    private final LongAdder loggedEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder synchronouslyLoggedEvents = new LongAdder();
+    private volatile boolean running = true;
+
+    AsyncLogDispatcher(AsyncLoggingSettings settings) {
+        if(settings.getWorkers() < 1) {
+            throw new IllegalArgumentException("Number of workers must be at least 1, but was " + settings.getWorkers());
+        }
+
+        this.settings = settings;
+        this.pendingEvents = new LogEventRingBuffer<>(settings.getBufferSize());
+
+        for(var i = 0; i < settings.getWorkers(); i++) {
+            var worker = new Thread(this::processEvents, "annotated-logging-async-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    void dispatch(LogStatement logStatement, StatementSettings statementSettings, Logger logger, Object[] methodArgs,
+                  Object result, long elapsedNanos) {
+        var logEvent = new LogEvent(logStatement, statementSettings, logger, methodArgs, result, elapsedNanos);
+
+        if(!running) {
+            logSynchronously(logEvent);
+            return;
+        }
+
+        if(publish(logEvent)) {
+            return;
+        }
+
+        switch(settings.getBackpressure()) {
+            case DROP:
+                droppedEvents.increment();
+                break;
+            case BLOCK:
+                publishWhenSpaceAvailable(logEvent);
+                break;
+            case SYNC:
+                logSynchronously(logEvent);
+                break;
+        }
+    }
+
+    private void logSynchronously(LogEvent logEvent) {
+        synchronouslyLoggedEvents.increment();
+        logEvent.log();
+    }
+
+    /**
+     * Publishes the event unless the buffer is full. If the dispatcher was shut down in the meantime,
+     * the workers may have already stopped, so pending events are logged by the calling thread.
+     */
+    private boolean publish(LogEvent logEvent) {
+        if(!pendingEvents.offer(logEvent)) {
+            return false;
+        }
+
+        publishedEvents.increment();
+        if(!running) {
+            logPendingEvents();
+            return true;
+        }
+
+        var parkedWorker = parkedWorkers.poll();
+        if(parkedWorker != null) {
+            LockSupport.unpark(parkedWorker);
+        }
+        return true;
+    }
+
+    private void logPendingEvents() {
+        LogEvent logEvent;
+        while((logEvent = pendingEvents.poll()) != null) {
+            try {
+                logEvent.log();
+            } finally {
+                loggedEvents.increment();
+            }
+        }
+    }
+
+    private void publishWhenSpaceAvailable(LogEvent logEvent) {
+        while(running) {
+            if(publish(logEvent)) {
+                return;
+            }
+            LockSupport.parkNanos(BLOCKED_PRODUCER_PARK_NANOS);
+        }
+
+        logSynchronously(logEvent);
+    }
+
+    private void processEvents() {
+        var idleSpins = 0;
+
+        while(running || !pendingEvents.isEmpty()) {
+            var logEvent = pendingEvents.poll();
+
+            if(logEvent != null) {
+                idleSpins = 0;
+                try {
+                    logEvent.log();
+                } finally {
+                    loggedEvents.increment();
+                }
+            } else if(++idleSpins < IDLE_WORKER_SPINS) {
+                Thread.onSpinWait();
+            } else {
+                idleSpins = 0;
+                parkUntilPublished();
+            }
+        }
+    }
+
+    /**
+     * Parks the worker until an event is published. The worker is registered as parked before checking the ring
+     * buffer for the last time, so an event published in between either is found, or unparks the worker.
+     */
+    private void parkUntilPublished() {
+        var worker = Thread.currentThread();
+        parkedWorkers.add(worker);
+
+        if(running && pendingEvents.isEmpty()) {
+            LockSupport.park(this);
+        }
+
+        parkedWorkers.remove(worker);
+    }
+
+    /**
+     * Waits until all the events published so far are logged.
+     *
+     * @param timeout maximum time to wait
+     * @return true if all the events were logged, false if the timeout elapsed first
+     */
+    boolean flush(Duration timeout) {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        var eventsToLog = publishedEvents.sum();
+
+        while(loggedEvents.sum() < eventsToLog) {
+            if(System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(FLUSH_PARK_NANOS);
+        }
+
+        return true;
+    }
+
+    /**
+     * Stops accepting new events, and waits for the pending ones to be logged.
+     * Events dispatched after shutdown are logged synchronously.
+     */
+    void shutdown() {
+        var flushed = flush(settings.getShutdownTimeout());
+        running = false;
+        workers.forEach(LockSupport::unpark);
+
+        for(var worker : workers) {
+            try {
+                worker.join(settings.getShutdownTimeout().toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if(!flushed) {
+            LOGGER.warn("Not all asynchronous log events were logged within {}", settings.getShutdownTimeout());
+        }
+    }
+
+    long getDroppedEventsCount() {
+        return droppedEvents.sum();
+    }
+
+    long getSynchronouslyLoggedEventsCount() {
+        return synchronouslyLoggedEvents.sum();
+    }
+
+    @RequiredArgsConstructor
+    private static class LogEvent {
+        private final LogStatement logStatement;
+        private final StatementSettings settings;
+        private final Logger logger;
+        private final Object[] methodArgs;
+        private final Object result;
+        private final long elapsedNanos;
+
+        void log() {
+            try {
+                logStatement.log(logger, settings, methodArgs, result, elapsedNanos);
+            } catch (Exception ex) {
+                LOGGER.warn("Couldn't log annotated log message asynchronously. Reason: " + ex.getMessage(), ex);
+            }
+        }
+    }
+}
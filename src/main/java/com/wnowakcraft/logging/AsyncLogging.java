@@ -0,0 +1,110 @@
+package com.wnowakcraft.logging;
+
+import java.time.Duration;
+
+/**
+ * Entry point of the asynchronous logging mode.
+ * Log statements declared with <pre>async = true</pre> only capture the method arguments and the result
+ * on the calling thread, while their expressions are evaluated and the messages are logged by background workers.
+ * This lowers the latency of annotated methods at the price of log messages being logged a bit later
+ * than the surrounding code's own messages.
+ * <p>
+ * The background workers are started with default settings on first use, unless {@link #configure} was called before.
+ * Pending log events are flushed at JVM shutdown.
+ */
+public final class AsyncLogging {
+    private static volatile AsyncLogDispatcher dispatcher;
+    private static volatile boolean shutDown;
+    private static boolean shutdownHookRegistered;
+
+    private AsyncLogging() { }
+
+    /**
+     * Configures the asynchronous logging mode. If it was already running, pending log events are flushed first.
+     *
+     * @param settings asynchronous logging settings
+     * @throws IllegalArgumentException if the number of workers or the buffer size is out of range
+     */
+    public static synchronized void configure(AsyncLoggingSettings settings) {
+        var previousDispatcher = dispatcher;
+        dispatcher = new AsyncLogDispatcher(settings);
+        shutDown = false;
+        registerShutdownHook();
+
+        if(previousDispatcher != null) {
+            previousDispatcher.shutdown();
+        }
+    }
+
+    /**
+     * Waits until all the log events dispatched so far are logged.
+     *
+     * @param timeout maximum time to wait
+     * @return true if all the log events were logged, false if the timeout elapsed first
+     */
+    public static boolean flush(Duration timeout) {
+        var currentDispatcher = dispatcher;
+        return currentDispatcher == null || currentDispatcher.flush(timeout);
+    }
+
+    /**
+     * Stops the background workers, waiting for pending log events to be logged.
+     * Asynchronous log statements are logged synchronously afterwards, unless {@link #configure} is called again.
+     */
+    public static synchronized void shutdown() {
+        shutDown = true;
+
+        if(dispatcher != null) {
+            dispatcher.shutdown();
+            dispatcher = null;
+        }
+    }
+
+    /**
+     * Returns the number of log events dropped because the buffer was full.
+     *
+     * @return number of dropped log events
+     */
+    public static long getDroppedEventsCount() {
+        var currentDispatcher = dispatcher;
+        return currentDispatcher != null ? currentDispatcher.getDroppedEventsCount() : 0;
+    }
+
+    /**
+     * Returns the number of log events logged synchronously by the calling thread because the buffer was full.
+     *
+     * @return number of log events logged synchronously
+     */
+    public static long getSynchronouslyLoggedEventsCount() {
+        var currentDispatcher = dispatcher;
+        return currentDispatcher != null ? currentDispatcher.getSynchronouslyLoggedEventsCount() : 0;
+    }
+
+    /**
+     * Returns the dispatcher of asynchronous log statements, starting it if needed.
+     *
+     * @return the dispatcher, or null if asynchronous logging was shut down
+     */
+    static AsyncLogDispatcher dispatcher() {
+        var currentDispatcher = dispatcher;
+
+        if(currentDispatcher == null && !shutDown) {
+            synchronized(AsyncLogging.class) {
+                if(dispatcher == null && !shutDown) {
+                    dispatcher = new AsyncLogDispatcher(AsyncLoggingSettings.builder().build());
+                    registerShutdownHook();
+                }
+                currentDispatcher = dispatcher;
+            }
+        }
+
+        return currentDispatcher;
+    }
+
+    private static void registerShutdownHook() {
+        if(!shutdownHookRegistered) {
+            Runtime.getRuntime().addShutdownHook(new Thread(AsyncLogging::shutdown, "annotated-logging-async-shutdown"));
+            shutdownHookRegistered = true;
+        }
+    }
+}
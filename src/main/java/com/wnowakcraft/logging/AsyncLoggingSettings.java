@@ -0,0 +1,53 @@
+package com.wnowakcraft.logging;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Settings of the asynchronous logging mode.
+ *
+ * @see AsyncLogging
+ */
+@Getter
+@Builder
+public class AsyncLoggingSettings {
+    /**
+     * Capacity of the buffer of pending log events, between 2 and 2^30. It's rounded up to the nearest power of two.
+     */
+    @Builder.Default
+    private final int bufferSize = 8192;
+
+    /**
+     * Number of background threads evaluating and logging pending log events, at least 1.
+     */
+    @Builder.Default
+    private final int workers = 1;
+
+    /**
+     * What to do with a log event when the buffer is full.
+     */
+    @Builder.Default
+    private final Backpressure backpressure = Backpressure.SYNC;
+
+    /**
+     * How long to wait for pending log events to be logged on shutdown.
+     */
+    @Builder.Default
+    private final Duration shutdownTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Defines what happens to a log event when the buffer of pending log events is full.
+     */
+    public enum Backpressure {
+        /** The event is dropped and counted as such */
+        DROP,
+
+        /** The calling thread waits until there is space in the buffer */
+        BLOCK,
+
+        /** The event is logged synchronously by the calling thread */
+        SYNC
+    }
+}
@@ -0,0 +1,344 @@
+package com.wnowakcraft.logging;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Memory-mapped capture file written by {@link LogCapture}. The file consists of a header, a dictionary of captured
+ * statements, and a ring of records divided into segments:
+ * <ul>
+ *     <li>the header holds the layout, the number of statements in the dictionary, and the write position,
+ *     i.e. the number of ring bytes claimed so far,</li>
+ *     <li>a dictionary entry holds the number of a statement, its identifier and the message pattern,</li>
+ *     <li>a record holds its length, the lap of the ring it was written in, the statement number, the level,
+ *     the timestamp and the tagged values of the resolved expressions.</li>
+ * </ul>
+ * Threads claim space for their records by a CAS on the write position, without locking, and publish a record
+ * by writing its length and lap last, in a single store. Until then, the space holds the length and lap of a record
+ * of a previous lap, or any bytes of its body. A record never crosses a segment boundary, so a reader can always
+ * start at a segment boundary, skipping the remainder of a segment once it finds a record which isn't complete,
+ * comes from another lap, or can't be decoded.
+ */
+class CaptureFile {
+    static final int MAGIC = 0x414c4346;
+    static final int VERSION = 1;
+    static final int SEGMENT_SIZE = 64 * 1024;
+    static final int HEADER_SIZE = 64;
+    static final int SEGMENT_SIZE_OFFSET = 8;
+    static final int DICTIONARY_CAPACITY_OFFSET = 12;
+    static final int RING_CAPACITY_OFFSET = 16;
+    static final int DEFINITIONS_COUNT_OFFSET = 20;
+    static final int WRITE_POSITION_OFFSET = 32;
+    static final int RECORD_HEADER_SIZE = 24;
+    static final int MAX_PARAMS_COUNT = 255;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final byte NULL = 0;
+    static final byte STRING = 1;
+    static final byte TRUNCATED_STRING = 2;
+    static final byte INT = 3;
+    static final byte LONG = 4;
+    static final byte DOUBLE = 5;
+    static final byte FLOAT = 6;
+    static final byte BOOLEAN = 7;
+    static final byte CHAR = 8;
+    static final byte SHORT = 9;
+    static final byte BYTE = 10;
+
+    private static final VarHandle INT_HANDLE = MethodHandles.byteBufferViewVarHandle(int[].class, BYTE_ORDER);
+    private static final VarHandle LONG_HANDLE = MethodHandles.byteBufferViewVarHandle(long[].class, BYTE_ORDER);
+    private static final String FAILED_TO_STRING = "[FAILED toString()]";
+
+    private final MappedByteBuffer buffer;
+    private final int dictionaryCapacity;
+    private final int ringStart;
+    private final int ringCapacity;
+    private final Map<String, StatementDefinition> definitions = new ConcurrentHashMap<>();
+    private int dictionarySize;
+
+    private CaptureFile(MappedByteBuffer buffer, int dictionaryCapacity, int ringCapacity) {
+        this.buffer = buffer;
+        this.dictionaryCapacity = dictionaryCapacity;
+        this.ringStart = HEADER_SIZE + dictionaryCapacity;
+        this.ringCapacity = ringCapacity;
+    }
+
+    static CaptureFile create(CaptureSettings settings) throws IOException {
+        var dictionaryCapacity = alignedSize(Math.max(settings.getDictionaryBytes(), 0));
+        var segments = Math.max((settings.getCapacityBytes() + SEGMENT_SIZE - 1) / SEGMENT_SIZE, 1);
+        var ringCapacity = segments * SEGMENT_SIZE;
+
+        MappedByteBuffer buffer;
+        try(var channel = FileChannel.open(settings.getFile(), CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long)HEADER_SIZE + dictionaryCapacity + ringCapacity);
+        }
+        buffer.order(BYTE_ORDER);
+
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(SEGMENT_SIZE_OFFSET, SEGMENT_SIZE);
+        buffer.putInt(DICTIONARY_CAPACITY_OFFSET, dictionaryCapacity);
+        buffer.putInt(RING_CAPACITY_OFFSET, ringCapacity);
+
+        return new CaptureFile(buffer, dictionaryCapacity, ringCapacity);
+    }
+
+    /**
+     * Defines the statement in the dictionary of the file, unless it's already defined.
+     *
+     * @param statementId identifier of the statement
+     * @param messagePattern SLF4J message pattern the captured values are formatted with
+     * @param paramsCount number of the values captured by the statement
+     * @return the definition, or null if the statement can't be captured, since the dictionary is full,
+     * or it has too many values
+     */
+    StatementDefinition define(String statementId, String messagePattern, int paramsCount) {
+        var definition = definitions.get(statementId);
+        if(definition != null) {
+            return definition;
+        }
+
+        if(paramsCount > MAX_PARAMS_COUNT) {
+            return null;
+        }
+
+        synchronized(this) {
+            definition = definitions.get(statementId);
+            if(definition != null) {
+                return definition;
+            }
+
+            var entrySize = 12 + 2 * (statementId.length() + messagePattern.length());
+            if(dictionarySize + entrySize > dictionaryCapacity) {
+                return null;
+            }
+
+            var number = definitions.size();
+            var offset = HEADER_SIZE + dictionarySize;
+            buffer.putInt(offset, number);
+            offset = putChars(offset + 4, statementId);
+            putChars(offset, messagePattern);
+            dictionarySize += entrySize;
+            INT_HANDLE.setRelease(buffer, DEFINITIONS_COUNT_OFFSET, number + 1);
+
+            definition = new StatementDefinition(this, number);
+            definitions.put(statementId, definition);
+            return definition;
+        }
+    }
+
+    void flush() {
+        buffer.force();
+    }
+
+    /**
+     * Writes a record with the given values, converted to strings in place unless they're primitives or strings.
+     * Strings are cut, so the record fits in a segment.
+     */
+    private void capture(int statementNumber, Level level, Object[] params) {
+        var recordSize = RECORD_HEADER_SIZE;
+        var stringsCount = 0;
+        var stringsLength = 0;
+
+        for(var i = 0; i < params.length; i++) {
+            params[i] = capturedValue(params[i]);
+            recordSize += valueSize(params[i]);
+            if(params[i] instanceof String) {
+                stringsCount++;
+                stringsLength += ((String)params[i]).length();
+            }
+        }
+
+        var maxStringLength = Integer.MAX_VALUE;
+        if(recordSize > SEGMENT_SIZE) {
+            var availableChars = (SEGMENT_SIZE - 8 - (recordSize - 2 * stringsLength)) / 2;
+            maxStringLength = availableChars / stringsCount;
+            recordSize = recordSize - 2 * stringsLength + 2 * stringsCount * maxStringLength;
+        }
+
+        recordSize = alignedSize(recordSize);
+        var position = claim(recordSize);
+        var offset = ringStart + (int)(position % ringCapacity);
+        var lap = (int)(position / ringCapacity);
+
+        buffer.putInt(offset + 8, statementNumber);
+        buffer.put(offset + 12, (byte)level.ordinal());
+        buffer.put(offset + 13, (byte)params.length);
+        buffer.putLong(offset + 16, System.currentTimeMillis());
+
+        var valueOffset = offset + RECORD_HEADER_SIZE;
+        for(var param : params) {
+            valueOffset = putValue(valueOffset, param, maxStringLength);
+        }
+
+        LONG_HANDLE.setRelease(buffer, offset, (long)lap << 32 | recordSize);
+    }
+
+    /**
+     * Claims space for a record, skipping the remainder of the current segment if the record doesn't fit in it.
+     *
+     * @return the ring position of the record
+     */
+    private long claim(int recordSize) {
+        while(true) {
+            var position = (long)LONG_HANDLE.getVolatile(buffer, WRITE_POSITION_OFFSET);
+            var remainingInSegment = SEGMENT_SIZE - (int)(position % SEGMENT_SIZE);
+            var recordPosition = recordSize <= remainingInSegment ? position : position + remainingInSegment;
+
+            if(LONG_HANDLE.compareAndSet(buffer, WRITE_POSITION_OFFSET, position, recordPosition + recordSize)) {
+                return recordPosition;
+            }
+        }
+    }
+
+    private int putValue(int offset, Object value, int maxStringLength) {
+        if(value == null) {
+            buffer.put(offset, NULL);
+            return offset + 1;
+        }
+
+        if(value instanceof String) {
+            var string = (String)value;
+            if(string.length() > maxStringLength) {
+                buffer.put(offset, TRUNCATED_STRING);
+                return putChars(offset + 1, string.substring(0, maxStringLength));
+            }
+            buffer.put(offset, STRING);
+            return putChars(offset + 1, string);
+        }
+
+        if(value instanceof Integer) {
+            buffer.put(offset, INT).putInt(offset + 1, (Integer)value);
+            return offset + 5;
+        }
+
+        if(value instanceof Long) {
+            buffer.put(offset, LONG).putLong(offset + 1, (Long)value);
+            return offset + 9;
+        }
+
+        if(value instanceof Double) {
+            buffer.put(offset, DOUBLE).putDouble(offset + 1, (Double)value);
+            return offset + 9;
+        }
+
+        if(value instanceof Float) {
+            buffer.put(offset, FLOAT).putFloat(offset + 1, (Float)value);
+            return offset + 5;
+        }
+
+        if(value instanceof Boolean) {
+            buffer.put(offset, BOOLEAN).put(offset + 1, (byte)((Boolean)value ? 1 : 0));
+            return offset + 2;
+        }
+
+        if(value instanceof Character) {
+            buffer.put(offset, CHAR).putChar(offset + 1, (Character)value);
+            return offset + 3;
+        }
+
+        if(value instanceof Short) {
+            buffer.put(offset, SHORT).putShort(offset + 1, (Short)value);
+            return offset + 3;
+        }
+
+        buffer.put(offset, BYTE).put(offset + 1, (Byte)value);
+        return offset + 2;
+    }
+
+    private int putChars(int offset, String string) {
+        buffer.putInt(offset, string.length());
+        offset += 4;
+
+        for(var i = 0; i < string.length(); i++) {
+            buffer.putChar(offset, string.charAt(i));
+            offset += 2;
+        }
+
+        return offset;
+    }
+
+    /**
+     * Converts the value to the one which is written: primitives and strings are written as they are,
+     * while other values as strings, rendered the way SLF4J renders them.
+     */
+    private static Object capturedValue(Object value) {
+        if(value == null || value instanceof String || value instanceof Integer || value instanceof Long ||
+                value instanceof Double || value instanceof Float || value instanceof Boolean ||
+                value instanceof Character || value instanceof Short || value instanceof Byte) {
+            return value;
+        }
+
+        try {
+            if(value.getClass().isArray()) {
+                var rendered = Arrays.deepToString(new Object[] { value });
+                return rendered.substring(1, rendered.length() - 1);
+            }
+
+            return String.valueOf(value);
+        } catch (RuntimeException ex) {
+            return FAILED_TO_STRING;
+        }
+    }
+
+    private static int valueSize(Object value) {
+        if(value == null) {
+            return 1;
+        }
+
+        if(value instanceof String) {
+            return 5 + 2 * ((String)value).length();
+        }
+
+        if(value instanceof Long || value instanceof Double) {
+            return 9;
+        }
+
+        if(value instanceof Integer || value instanceof Float) {
+            return 5;
+        }
+
+        if(value instanceof Character || value instanceof Short) {
+            return 3;
+        }
+
+        return 2;
+    }
+
+    private static int alignedSize(int size) {
+        return (size + 7) & ~7;
+    }
+
+    /**
+     * Statement defined in the dictionary of a capture file, held by the statement as long as the file is used.
+     */
+    static class StatementDefinition {
+        private final CaptureFile file;
+        private final int number;
+
+        private StatementDefinition(CaptureFile file, int number) {
+            this.file = file;
+            this.number = number;
+        }
+
+        boolean isOf(CaptureFile captureFile) {
+            return file == captureFile;
+        }
+
+        void capture(Level level, Object[] params) {
+            file.capture(number, level, params);
+        }
+    }
+}
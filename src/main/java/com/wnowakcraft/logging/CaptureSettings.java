@@ -0,0 +1,34 @@
+package com.wnowakcraft.logging;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the binary capture file, written by log statements with {@link LogOutput#CAPTURE} output.
+ * Without the file, such log statements log their messages as usual.
+ *
+ * @see LogCapture
+ */
+@Getter
+@Builder
+public class CaptureSettings {
+    /**
+     * Capture file, replaced if it already exists. Null disables the capture.
+     */
+    private final Path file;
+
+    /**
+     * Size of the ring of captured records in bytes, rounded up to whole segments.
+     * Once it's full, the oldest records are overwritten.
+     */
+    @Builder.Default
+    private final int capacityBytes = 64 * 1024 * 1024;
+
+    /**
+     * Size of the dictionary of captured statements in bytes. Statements which don't fit in it are logged as usual.
+     */
+    @Builder.Default
+    private final int dictionaryBytes = 1024 * 1024;
+}
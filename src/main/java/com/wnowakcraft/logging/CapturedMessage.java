@@ -0,0 +1,28 @@
+package com.wnowakcraft.logging;
+
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Message of a captured log statement, formatted by {@link LogCaptureDecoder}.
+ */
+@Getter
+public class CapturedMessage {
+    private final Instant timestamp;
+    private final Level level;
+    private final String statementId;
+    private final String message;
+
+    CapturedMessage(Instant timestamp, Level level, String statementId, String message) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.statementId = statementId;
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return timestamp + " " + level + " " + statementId + " - " + message;
+    }
+}
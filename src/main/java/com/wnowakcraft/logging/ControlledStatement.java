@@ -0,0 +1,27 @@
+package com.wnowakcraft.logging;
+
+/**
+ * Log statement whose settings can be overridden at runtime by {@link LogStatements}.
+ */
+interface ControlledStatement {
+
+    /**
+     * Returns the identifier of the statement: its method, annotation and position among the annotations
+     * of the same type, e.g. <pre>com.acme.OrderService.find(String)@LogAfter[1]</pre>.
+     */
+    String getId();
+
+    String getMethodName();
+
+    String getTemplate();
+
+    StatementSettings getAnnotatedSettings();
+
+    StatementSettings getSettings();
+
+    void setSettings(StatementSettings settings);
+
+    static String idOf(String methodName, Class<?> annotationType, int index) {
+        return methodName + "@" + annotationType.getSimpleName() + "[" + index + "]";
+    }
+}
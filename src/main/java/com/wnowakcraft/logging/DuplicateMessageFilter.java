@@ -0,0 +1,176 @@
+package com.wnowakcraft.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Collapses identical messages of a single log statement within a time window.
+ * The first message opens the window and is logged, while identical ones, i.e. having the same params rendered,
+ * are only counted until the window closes; then a single message with the number of repetitions is logged.
+ * <p>
+ * Open windows are tracked in a bounded map, and closed by the {@link LoggingScheduler} thread,
+ * or by the next identical message, whichever comes first. When the map is full, new messages are logged as usual.
+ */
+class DuplicateMessageFilter {
+    static final int MAX_TRACKED_MESSAGES = 1024;
+    private static final Logger LOGGER = LoggerFactory.getLogger(DuplicateMessageFilter.class);
+    private static final long MIN_SWEEP_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long CLOSED = -1;
+
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final RepeatedMessageLogger repeatedMessageLogger;
+    private final Map<List<String>, Window> windows = new ConcurrentHashMap<>();
+
+    DuplicateMessageFilter(long windowMillis, LongSupplier nanoClock, RepeatedMessageLogger repeatedMessageLogger) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.nanoClock = nanoClock;
+        this.repeatedMessageLogger = repeatedMessageLogger;
+    }
+
+    /**
+     * Creates a filter for the given window, with its windows closed periodically.
+     *
+     * @return the filter, or null if the window is not positive, so messages are not filtered at all
+     */
+    static DuplicateMessageFilter of(long windowMillis, RepeatedMessageLogger repeatedMessageLogger) {
+        if(windowMillis <= 0) {
+            return null;
+        }
+
+        var filter = new DuplicateMessageFilter(windowMillis, System::nanoTime, repeatedMessageLogger);
+        var sweepInterval = Math.max(filter.windowNanos / 2, MIN_SWEEP_INTERVAL_NANOS);
+        LoggingScheduler.scheduleAtFixedRate(filter::closeExpiredWindows, Duration.ofNanos(sweepInterval));
+        return filter;
+    }
+
+    /**
+     * Tells whether a message with the given params should be logged. If not, it's counted as a repetition
+     * of the identical message logged within the window.
+     *
+     * @param logger logger the message is logged by, used later to log the number of repetitions
+     * @param params resolved params of the message
+     * @return true if the message isn't a duplicate and should be logged
+     */
+    boolean isFirstInWindow(Logger logger, Object[] params) {
+        var key = keyOf(params);
+
+        while(true) {
+            var now = nanoClock.getAsLong();
+            var window = windows.get(key);
+
+            if(window == null) {
+                if(windows.size() >= MAX_TRACKED_MESSAGES) {
+                    return true;
+                }
+
+                if(windows.putIfAbsent(key, new Window(logger, now)) == null) {
+                    return true;
+                }
+            } else if(now - window.openedAtNanos >= windowNanos) {
+                close(key, window);
+            } else if(window.countRepetition()) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Closes the windows which are open for longer than the window duration,
+     * logging the number of repetitions of the messages which were repeated.
+     */
+    void closeExpiredWindows() {
+        var now = nanoClock.getAsLong();
+
+        for(var entry : windows.entrySet()) {
+            if(now - entry.getValue().openedAtNanos >= windowNanos) {
+                try {
+                    close(entry.getKey(), entry.getValue());
+                } catch (RuntimeException ex) {
+                    LOGGER.warn("Couldn't log repeated message. Reason: " + ex.getMessage(), ex);
+                }
+            }
+        }
+    }
+
+    int getOpenWindowsCount() {
+        return windows.size();
+    }
+
+    private void close(List<String> key, Window window) {
+        var repetitions = window.close();
+
+        if(repetitions != CLOSED) {
+            windows.remove(key, window);
+            if(repetitions > 0) {
+                repeatedMessageLogger.logRepeated(window.logger, key.toArray(), repetitions);
+            }
+        }
+    }
+
+    private static List<String> keyOf(Object[] params) {
+        var renderedParams = new String[params.length];
+
+        for(var i = 0; i < params.length; i++) {
+            var param = params[i];
+            renderedParams[i] = param != null && param.getClass().isArray() ? renderArray(param) : String.valueOf(param);
+        }
+
+        return List.of(renderedParams);
+    }
+
+    private static String renderArray(Object array) {
+        var wrappedArray = Arrays.deepToString(new Object[] { array });
+        return wrappedArray.substring(1, wrappedArray.length() - 1);
+    }
+
+    interface RepeatedMessageLogger {
+
+        /**
+         * @param params params of the message as rendered when its window was opened, so the repetitions are
+         *               reported as they were logged, even if the param objects have changed since
+         */
+        void logRepeated(Logger logger, Object[] params, long repetitions);
+    }
+
+    /**
+     * Single open window of a message, keyed by its rendered params. The number of repetitions is set to {@link #CLOSED}
+     * when the window is closed, so repetitions counted concurrently are either reported or retried in a new window.
+     */
+    private static class Window {
+        private final Logger logger;
+        private final long openedAtNanos;
+        private final AtomicLong repetitions = new AtomicLong();
+
+        Window(Logger logger, long openedAtNanos) {
+            this.logger = logger;
+            this.openedAtNanos = openedAtNanos;
+        }
+
+        boolean countRepetition() {
+            while(true) {
+                var currentRepetitions = repetitions.get();
+                if(currentRepetitions == CLOSED) {
+                    return false;
+                }
+
+                if(repetitions.compareAndSet(currentRepetitions, currentRepetitions + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        long close() {
+            return repetitions.getAndSet(CLOSED);
+        }
+    }
+}
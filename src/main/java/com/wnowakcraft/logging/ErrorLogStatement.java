@@ -0,0 +1,84 @@
+package com.wnowakcraft.logging;
+
+import com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver;
+import org.slf4j.Logger;
+
+/**
+ * Single log statement defined by {@link LogOnError} annotation, with its message template already compiled.
+ * The thrown exception is logged together with the message, but its stack trace only until
+ * the limit of stack traces per minute is reached; then only its class and message are appended.
+ */
+class ErrorLogStatement extends AbstractLogStatement {
+    private static final String OMITTED_STACK_TRACE_SUFFIX = " ({}, stack trace omitted, {} time(s) in the last minute)";
+    private static final String EXCEPTION_KEY = "exception";
+    private static final String OMITTED_STACK_TRACES_KEY = "omittedStackTraces";
+    private final StackTraceThrottle stackTraceThrottle;
+    private final String omittedStackTracePattern;
+
+    private ErrorLogStatement(String id, String methodName, Level level, LogOutput output, int stackTracesPerMinute, ParamRenderer paramRenderer,
+                              String messageTemplate, LoggingStats stats) {
+        super(id, methodName, new StatementSettings(true, level, null), output, paramRenderer, messageTemplate, stats);
+        this.stackTraceThrottle = StackTraceThrottle.of(stackTracesPerMinute);
+        this.omittedStackTracePattern = this.messageTemplate != null ?
+                this.messageTemplate.getCleanLogMessageTemplate() + OMITTED_STACK_TRACE_SUFFIX : null;
+    }
+
+    static ErrorLogStatement of(LogOnError logOnError, String methodName, int index, LoggingStats stats) {
+        return new ErrorLogStatement(ControlledStatement.idOf(methodName, LogOnError.class, index), methodName,
+                logOnError.level(), logOnError.output(), logOnError.stackTracesPerMinute(),
+                ParamRenderer.of(logOnError.limits()), logOnError.value(), stats);
+    }
+
+    /**
+     * Evaluates the template and logs the message together with the exception. If the template keeps failing,
+     * the statement is degraded by its {@link TemplateCircuitBreaker}, and the failures are no longer thrown.
+     */
+    void log(Logger logger, StatementSettings settings, Object[] methodArgs, Throwable exception) {
+        var expressionResolver = ExpressionResolver.acquireForError(methodArgs, exception);
+
+        try {
+            log(logger, settings, expressionResolver, exception);
+        } finally {
+            expressionResolver.release();
+        }
+    }
+
+    @Override
+    void logEvaluated(Logger logger, StatementSettings settings, ExpressionResolver expressionResolver, Throwable exception) {
+        logWithException(logger, settings.getLevel(), resolveParams(expressionResolver), exception);
+    }
+
+    @Override
+    void logDegraded(Logger logger, StatementSettings settings, Throwable exception) {
+        logWithException(logger, settings.getLevel(), degradedParams, exception);
+    }
+
+    private void logWithException(Logger logger, Level level, Object[] params, Throwable exception) {
+        var omittedStackTraces = stackTraceThrottle.omittedStackTraces(exception.getClass());
+
+        if(output.addsKeyValues()) {
+            logKeyValues(logger, level, params, exception, omittedStackTraces);
+            return;
+        }
+
+        if(omittedStackTraces == 0) {
+            level.log(logger, messageTemplate.getCleanLogMessageTemplate(), appended(params, exception));
+        } else {
+            level.log(logger, omittedStackTracePattern, appended(params, exception.toString(), omittedStackTraces));
+        }
+        stats.recordEmitted();
+    }
+
+    private void logKeyValues(Logger logger, Level level, Object[] params, Throwable exception, long omittedStackTraces) {
+        var eventBuilder = atLevelWithKeyValues(logger, level, params);
+        if(omittedStackTraces == 0) {
+            eventBuilder = eventBuilder.setCause(exception);
+        } else {
+            eventBuilder = eventBuilder
+                    .addKeyValue(EXCEPTION_KEY, exception.toString())
+                    .addKeyValue(OMITTED_STACK_TRACES_KEY, omittedStackTraces);
+        }
+
+        logKeyValues(eventBuilder, messageTemplate.getCleanLogMessageTemplate(), params);
+    }
+}
@@ -0,0 +1,31 @@
+package com.wnowakcraft.logging;
+
+import com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver;
+
+/**
+ * Compiles expressions referred in log message templates, e.g. <pre>p0.customer.id</pre>, into their executable form.
+ * Expressions are compiled once per template, and then evaluated against the {@link ExpressionResolver}
+ * of every logged invocation, which exposes the method arguments, the result, the execution time and the exception.
+ */
+interface ExpressionEngine {
+
+    /**
+     * Compiles the given expression.
+     *
+     * @param expression expression starting with a param, e.g. <pre>p0.getName()</pre>
+     * @return compiled expression
+     * @throws RuntimeException if the expression isn't valid
+     */
+    Expression compile(String expression);
+
+    interface Expression {
+
+        /**
+         * Evaluates the expression against a single invocation.
+         *
+         * @param resolver resolver of the params of the invocation
+         * @return value of the expression, or null if any param or member it navigates through is null
+         */
+        Object evaluate(ExpressionResolver resolver);
+    }
+}
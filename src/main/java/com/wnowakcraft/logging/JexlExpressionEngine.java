@@ -0,0 +1,39 @@
+package com.wnowakcraft.logging;
+
+import com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.JexlExpression;
+
+/**
+ * Expression engine backed by commons-jexl3, supporting the whole JEXL syntax, e.g. method calls with arguments
+ * or indexed access. The {@link ExpressionResolver} is the JEXL context of evaluation.
+ */
+class JexlExpressionEngine implements ExpressionEngine {
+    private static final JexlEngine JEXL_ENGINE = new JexlBuilder().create();
+
+    @Override
+    public Expression compile(String expression) {
+        return new JexlCompiledExpression(JEXL_ENGINE.createExpression(expression));
+    }
+
+    @RequiredArgsConstructor
+    private static class JexlCompiledExpression implements Expression {
+        private final JexlExpression jexlExpression;
+
+        @Override
+        public Object evaluate(ExpressionResolver resolver) {
+            try {
+                return jexlExpression.evaluate(resolver);
+            } catch (JexlException.Variable ex) {
+                if(ex.isUndefined() || ex.getMessage().contains("null value variable")) {
+                    return null;
+                }
+
+                throw ex;
+            }
+        }
+    }
+}
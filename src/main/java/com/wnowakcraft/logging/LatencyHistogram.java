@@ -0,0 +1,98 @@
+package com.wnowakcraft.logging;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds, with log-linear buckets, similar to HdrHistogram.
+ * Values below 32 have their own buckets. Every higher power of two range is split into 16 equal buckets,
+ * so a value is known with at most 6.25% relative error, while the whole long range takes less than 1000 buckets.
+ */
+class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 32;
+    private static final int LINEAR_BUCKETS_BITS = 5;
+    private static final int SUB_BUCKETS = 16;
+    private static final int SUB_BUCKETS_BITS = 4;
+    private static final int BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 1 - LINEAR_BUCKETS_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos) {
+        var value = Math.max(nanos, 0);
+        bucketCounts.incrementAndGet(bucketIndexOf(value));
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    static int bucketIndexOf(long value) {
+        if(value < LINEAR_BUCKETS) {
+            return (int)value;
+        }
+
+        var highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        var shift = highestBit - SUB_BUCKETS_BITS;
+        var subBucket = (int)(value >>> shift) - SUB_BUCKETS;
+
+        return LINEAR_BUCKETS + (highestBit - LINEAR_BUCKETS_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBoundOf(int bucketIndex) {
+        if(bucketIndex < LINEAR_BUCKETS) {
+            return bucketIndex;
+        }
+
+        var bucketInRanges = bucketIndex - LINEAR_BUCKETS;
+        var highestBit = LINEAR_BUCKETS_BITS + bucketInRanges / SUB_BUCKETS;
+        var shift = highestBit - SUB_BUCKETS_BITS;
+        var subBucket = SUB_BUCKETS + bucketInRanges % SUB_BUCKETS;
+
+        return ((long)(subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Takes a snapshot of the histogram. Recording may go on concurrently, so the snapshot is not atomic,
+     * but it's consistent enough for reporting.
+     */
+    LatencySnapshot snapshot() {
+        var counts = new long[BUCKETS];
+        var count = 0L;
+
+        for(var i = 0; i < BUCKETS; i++) {
+            counts[i] = bucketCounts.get(i);
+            count += counts[i];
+        }
+
+        return new LatencySnapshot(count, totalNanos.sum(), maxNanos.get(),
+                percentile(counts, count, 0.5), percentile(counts, count, 0.9),
+                percentile(counts, count, 0.99), percentile(counts, count, 0.999));
+    }
+
+    private static long percentile(long[] counts, long totalCount, double percentile) {
+        if(totalCount == 0) {
+            return 0;
+        }
+
+        var countAtPercentile = Math.max(1, (long)Math.ceil(totalCount * percentile));
+        var cumulativeCount = 0L;
+
+        for(var i = 0; i < counts.length; i++) {
+            cumulativeCount += counts[i];
+            if(cumulativeCount >= countAtPercentile) {
+                return bucketUpperBoundOf(i);
+            }
+        }
+
+        return bucketUpperBoundOf(counts.length - 1);
+    }
+
+    void reset() {
+        for(var i = 0; i < BUCKETS; i++) {
+            bucketCounts.set(i, 0);
+        }
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+}
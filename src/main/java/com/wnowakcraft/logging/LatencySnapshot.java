@@ -0,0 +1,49 @@
+package com.wnowakcraft.logging;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Snapshot of latencies of a method annotated with {@link Timed}.
+ * All the latencies are in nanoseconds. Percentiles are upper bounds of histogram buckets,
+ * so they are known with at most 6.25% relative error.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class LatencySnapshot {
+    /** Number of recorded invocations */
+    private final long count;
+    /** Sum of all the recorded latencies */
+    private final long totalNanos;
+    /** Maximum recorded latency */
+    private final long maxNanos;
+    /** Median latency */
+    private final long p50Nanos;
+    /** 90th percentile latency */
+    private final long p90Nanos;
+    /** 99th percentile latency */
+    private final long p99Nanos;
+    /** 99.9th percentile latency */
+    private final long p999Nanos;
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return the mean latency in nanoseconds, or zero if nothing was recorded
+     */
+    public long getMeanNanos() {
+        return count > 0 ? totalNanos / count : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%.3fms, p50=%.3fms, p90=%.3fms, p99=%.3fms, p99.9=%.3fms, max=%.3fms",
+                count, millis(getMeanNanos()), millis(p50Nanos), millis(p90Nanos), millis(p99Nanos),
+                millis(p999Nanos), millis(maxNanos));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -1,38 +1,132 @@
 package com.wnowakcraft.logging;
 
 import org.slf4j.Logger;
+import org.slf4j.spi.LoggingEventBuilder;
 
 /**
  * Class which defines possible levels for log statements.
+ * Besides the variable arity method, the fixed arity ones delegate to the matching SLF4J methods,
+ * so that messages with up to two parameters don't need a parameters array.
+ * Structured log statements are built with the SLF4J fluent API instead.
  */
 public enum Level {
     /** Error level */
     ERROR {
+        boolean isEnabled(Logger logger) {
+            return logger.isErrorEnabled();
+        }
+
+        void log(Logger logger, String message) {
+            logger.error(message);
+        }
+
+        void log(Logger logger, String message, Object parameter) {
+            logger.error(message, parameter);
+        }
+
+        void log(Logger logger, String message, Object parameter1, Object parameter2) {
+            logger.error(message, parameter1, parameter2);
+        }
+
         void log(Logger logger, String message, Object... parameters) {
             logger.error(message, parameters);
         }
+
+        LoggingEventBuilder atLevel(Logger logger) {
+            return logger.atError();
+        }
     },
 
     /** Warning level */
     WARNING {
+        boolean isEnabled(Logger logger) {
+            return logger.isWarnEnabled();
+        }
+
+        void log(Logger logger, String message) {
+            logger.warn(message);
+        }
+
+        void log(Logger logger, String message, Object parameter) {
+            logger.warn(message, parameter);
+        }
+
+        void log(Logger logger, String message, Object parameter1, Object parameter2) {
+            logger.warn(message, parameter1, parameter2);
+        }
+
         void log(Logger logger, String message, Object... parameters) {
             logger.warn(message, parameters);
         }
+
+        LoggingEventBuilder atLevel(Logger logger) {
+            return logger.atWarn();
+        }
     },
 
     /** Info level */
     INFO {
+        boolean isEnabled(Logger logger) {
+            return logger.isInfoEnabled();
+        }
+
+        void log(Logger logger, String message) {
+            logger.info(message);
+        }
+
+        void log(Logger logger, String message, Object parameter) {
+            logger.info(message, parameter);
+        }
+
+        void log(Logger logger, String message, Object parameter1, Object parameter2) {
+            logger.info(message, parameter1, parameter2);
+        }
+
         void log(Logger logger, String message, Object... parameters) {
             logger.info(message, parameters);
         }
+
+        LoggingEventBuilder atLevel(Logger logger) {
+            return logger.atInfo();
+        }
     },
 
     /** Debug level */
     DEBUG {
+        boolean isEnabled(Logger logger) {
+            return logger.isDebugEnabled();
+        }
+
+        void log(Logger logger, String message) {
+            logger.debug(message);
+        }
+
+        void log(Logger logger, String message, Object parameter) {
+            logger.debug(message, parameter);
+        }
+
+        void log(Logger logger, String message, Object parameter1, Object parameter2) {
+            logger.debug(message, parameter1, parameter2);
+        }
+
         void log(Logger logger, String message, Object... parameters) {
             logger.debug(message, parameters);
         }
+
+        LoggingEventBuilder atLevel(Logger logger) {
+            return logger.atDebug();
+        }
     };
 
+    abstract boolean isEnabled(Logger logger);
+
+    abstract void log(Logger logger, String message);
+
+    abstract void log(Logger logger, String message, Object parameter);
+
+    abstract void log(Logger logger, String message, Object parameter1, Object parameter2);
+
     abstract void log(Logger logger, String message, Object... parameters);
+
+    abstract LoggingEventBuilder atLevel(Logger logger);
 }
@@ -1,21 +1,27 @@
 package com.wnowakcraft.logging;
 
+import com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver;
 import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Field;
-
-import static java.lang.reflect.Modifier.isStatic;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Aspect defining pointcuts for log statements.
+ * Advices use execution pointcuts with annotation patterns, so join points of methods having none of the annotations
+ * are rejected by the weaver from the method signature alone.
  */
 @Aspect
 public class LogAspect {
     private static final Logger LOGGER = LoggerFactory.getLogger(LogAspect.class);
-    private static final String LOG_FIELD_NAME = "log";
+    private final Map<JoinPoint.StaticPart, LoggingPlan> loggingPlans = new ConcurrentHashMap<>();
 
     /**
      * Pointcut of execution of any method.
@@ -36,134 +42,300 @@ public class LogAspect {
     public static void anyMethodReturningNoResult() { }
 
     /**
-     * Pointcut of execution of any method with {@link LogBefore} annotation.
-     *
-     * @param logBefore found {@link LogBefore} annotation
-     * @param joinPoint join point when the annotation was found
+     * Pointcut of execution of any method with either single or multiple {@link LogBefore} annotations.
      */
-    @Before("anyMethod() && @annotation(logBefore)")
-    public void logBefore(LogBefore logBefore, JoinPoint joinPoint) {
-        doLog(logBefore.value(), logBefore.level(), joinPoint);
-    }
+    @Pointcut("execution(@com.wnowakcraft.logging.LogBefore * *(..)) || execution(@com.wnowakcraft.logging.LogBeforeEntries * *(..))")
+    public static void anyMethodWithLogBeforeAnnotation() { }
 
     /**
-     * Pointcut of execution of any method returning no result with {@link LogAfter} annotation.
-     *
-     * @param logAfter found {@link LogAfter} annotation
-     * @param joinPoint join point when the annotation was found
+     * Pointcut of execution of any method with either single or multiple {@link LogAfter} annotations.
      */
-    @After("anyMethodReturningNoResult() && @annotation(logAfter)")
-    public void logAfter(LogAfter logAfter, JoinPoint joinPoint) {
-        doLog(logAfter.value(), logAfter.level(), joinPoint);
-    }
+    @Pointcut("execution(@com.wnowakcraft.logging.LogAfter * *(..)) || execution(@com.wnowakcraft.logging.LogAfterEntries * *(..))")
+    public static void anyMethodWithLogAfterAnnotation() { }
 
     /**
-     * Pointcut of execution of any method returning a result with {@link LogAfter} annotation.
-     *
-     * @param logAfter found {@link LogAfter} annotation
-     * @param joinPoint join point when the annotation was found
-     * @param result result being returned by the annotated method
+     * Pointcut of execution of any method with either single or multiple {@link LogOnError} annotations.
      */
-    @AfterReturning(value = "anyMethodReturningSomeResult() && @annotation(logAfter)", returning = "result")
-    public void logAfterResult(LogAfter logAfter, JoinPoint joinPoint, Object result) {
-        doLogWithResult(logAfter.value(), logAfter.level(), joinPoint, result);
-    }
+    @Pointcut("execution(@com.wnowakcraft.logging.LogOnError * *(..)) || execution(@com.wnowakcraft.logging.LogOnErrorEntries * *(..))")
+    public static void anyMethodWithLogOnErrorAnnotation() { }
+
+    /**
+     * Pointcut of execution of any method annotated with {@link Timed}.
+     */
+    @Pointcut("execution(@com.wnowakcraft.logging.Timed * *(..))")
+    public static void anyTimedMethod() { }
+
+    /**
+     * Pointcut of execution of any method annotated with {@link LogSummary}.
+     */
+    @Pointcut("execution(@com.wnowakcraft.logging.LogSummary * *(..))")
+    public static void anySummarizedMethod() { }
 
     /**
-     * Pointcut of execution of any method with multiple {@link LogBefore} annotations.
+     * Pointcut of execution of any method with one or more {@link LogBefore} annotations.
      *
-     * @param logBeforeEntries found {@link LogBeforeEntries} annotation containing multiple {@link LogBefore} annotations
-     * @param joinPoint join point when the annotation was found
+     * @param joinPoint join point when the annotations were found
      */
-    @Before("anyMethod() && @annotation(logBeforeEntries)")
-    public void logBeforeEntries(LogBeforeEntries logBeforeEntries, JoinPoint joinPoint) {
-        for(LogBefore logBefore : logBeforeEntries.value()) {
-            doLog(logBefore.value(), logBefore.level(), joinPoint);
+    @Before("anyMethodWithLogBeforeAnnotation()")
+    public void logBefore(JoinPoint joinPoint) {
+        var loggingPlan = getLoggingPlan(joinPoint.getStaticPart());
+        if(loggingPlan.isInvocationCountedBefore()) {
+            loggingPlan.getStats().recordInvocation();
         }
+        Object noResult = null;
+        doLog(loggingPlan, loggingPlan.getBeforeStatements(), joinPoint, noResult, ExpressionResolver.NOT_MEASURED);
     }
 
     /**
-     * Pointcut of execution of any method returning no result with multiple {@link LogAfter} annotations.
+     * Pointcut of execution of any method with one or more {@link LogAfter} annotations, or with {@link Timed}
+     * or {@link LogSummary} annotation.
+     * The execution time of the method is measured only if it's timed or any of its log templates refers to it.
+     * Log statements are executed only when the method completes normally; those logged on completion
+     * of the returned {@link CompletionStage} are attached to it, and executed when it completes.
      *
-     * @param logAfterEntries found {@link LogAfterEntries} annotation containing multiple {@link LogAfter} annotations
-     * @param joinPoint join point when the annotation was found
+     * @param joinPoint join point when the annotations were found
+     * @return result being returned by the annotated method
+     * @throws Throwable exception being thrown by the annotated method
      */
-    @After("anyMethodReturningNoResult() && @annotation(logAfterEntries)")
-    public void logAfterEntries(LogAfterEntries logAfterEntries, JoinPoint joinPoint) {
-        for(LogAfter logAfter : logAfterEntries.value()) {
-            doLog(logAfter.value(), logAfter.level(), joinPoint);
+    @Around("anyMethodWithLogAfterAnnotation() || anyTimedMethod() || anySummarizedMethod()")
+    public Object logAfter(ProceedingJoinPoint joinPoint) throws Throwable {
+        var loggingPlan = getLoggingPlan(joinPoint.getStaticPart());
+        loggingPlan.getStats().recordInvocation();
+
+        if(!loggingPlan.isMeasuringTime()) {
+            var result = proceed(loggingPlan, joinPoint);
+            logAfterReturning(loggingPlan, joinPoint, result, 0, ExpressionResolver.NOT_MEASURED);
+            return result;
         }
+
+        var startNanos = System.nanoTime();
+        Object result;
+        long elapsedNanos;
+        try {
+            result = proceed(loggingPlan, joinPoint);
+        } finally {
+            elapsedNanos = System.nanoTime() - startNanos;
+            recordLatency(loggingPlan, joinPoint, elapsedNanos);
+        }
+
+        logAfterReturning(loggingPlan, joinPoint, result, startNanos, elapsedNanos);
+        return result;
     }
 
     /**
-     * Pointcut of execution of any method returning a result with multiple {@link LogAfter} annotations
-     * @param logAfterEntries found {@link LogAfterEntries} annotation containing multiple {@link LogAfter} annotations
-     * @param joinPoint join point when the annotation was found
-     * @param result result being returned by the annotated method
+     * Pointcut of execution of any method with one or more {@link LogOnError} annotations, which threw an exception.
+     *
+     * @param joinPoint join point when the annotations were found
+     * @param exception exception being thrown by the annotated method
      */
-    @AfterReturning(value = "anyMethodReturningSomeResult() && @annotation(logAfterEntries)", returning = "result")
-    public void logAfterEntriesResult(LogAfterEntries logAfterEntries, JoinPoint joinPoint, Object result) {
-        for(LogAfter logAfter : logAfterEntries.value()) {
-            doLogWithResult(logAfter.value(), logAfter.level(), joinPoint, result);
+    @AfterThrowing(value = "anyMethodWithLogOnErrorAnnotation()", throwing = "exception")
+    public void logOnError(JoinPoint joinPoint, Throwable exception) {
+        var loggingPlan = getLoggingPlan(joinPoint.getStaticPart());
+        if(loggingPlan.isInvocationCountedOnError()) {
+            loggingPlan.getStats().recordInvocation();
         }
+        doLogError(loggingPlan, joinPoint, exception);
     }
 
-    private void doLog(String logMessageTemplate, Level level, JoinPoint joinPoint) {
-        Object noResult = null;
-        doLogWithResult(logMessageTemplate, level, joinPoint, noResult);
+    private void doLogError(LoggingPlan loggingPlan, JoinPoint joinPoint, Throwable exception) {
+        if(loggingPlan.getErrorStatements().length == 0) {
+            return;
+        }
+
+        Logger logger;
+        try {
+            logger = loggingPlan.getLogger(joinPoint.getTarget());
+        } catch (Exception ex) {
+            LOGGER.warn("Couldn't get logger for annotated log message. Reason: " + ex.getMessage(), ex);
+            return;
+        }
+
+        Object[] methodArgs = null;
+        for(ErrorLogStatement errorStatement : loggingPlan.getErrorStatements()) {
+            var settings = errorStatement.getSettings();
+            if(!errorStatement.isEnabled(logger, settings)) {
+                continue;
+            }
+
+            if(methodArgs == null) {
+                methodArgs = joinPoint.getArgs();
+            }
+
+            try {
+                errorStatement.log(logger, settings, methodArgs, exception);
+            } catch (Exception ex) {
+                LOGGER.warn("Couldn't log annotated log message. Reason: " + ex.getMessage(), ex);
+            }
+        }
     }
 
-    private void doLogWithResult(String logMessageTemplate, Level level, JoinPoint joinPoint, Object result) {
+    private LoggingPlan getLoggingPlan(JoinPoint.StaticPart joinPoint) {
+        var loggingPlan = loggingPlans.get(joinPoint);
+
+        if(loggingPlan == null) {
+            loggingPlan = loggingPlans.computeIfAbsent(joinPoint, LoggingPlan::forJoinPoint);
+        }
+
+        return loggingPlan;
+    }
+
+    /**
+     * Proceeds with the execution of the method, recording it in the summary of the method, if it's summarized.
+     */
+    private Object proceed(LoggingPlan loggingPlan, ProceedingJoinPoint joinPoint) throws Throwable {
+        var summary = loggingPlan.getSummary();
+        if(summary == null) {
+            return joinPoint.proceed();
+        }
+
+        Object result;
         try {
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            recordSummary(summary, loggingPlan, joinPoint, null, true);
+            throw ex;
+        }
 
-            var logger = getLogger(joinPoint.getTarget());
+        recordSummary(summary, loggingPlan, joinPoint, result, false);
+        return result;
+    }
 
-            var logMessageParamsResolver = LogMessageParamsResolver.forMessageTemplate(logMessageTemplate);
-            Object[] logMessageParams = logMessageParamsResolver.getParamsReferredInTemplate(joinPoint.getArgs(), result);
-            String cleanLogMessagePattern = logMessageParamsResolver.getCleanLogMessageTemplate();
+    private void recordSummary(MethodSummary summary, LoggingPlan loggingPlan, JoinPoint joinPoint, Object result,
+                               boolean failed) {
+        try {
+            summary.record(joinPoint.getArgs(), result, failed);
 
-            level.log(logger, cleanLogMessagePattern, logMessageParams);
+            if(!summary.hasLogger()) {
+                summary.setLogger(loggingPlan.getLogger(joinPoint.getTarget()));
+            }
         } catch (Exception ex) {
-            LOGGER.warn("Couldn't logBefore annotate logBefore message. Reason: " + ex.getMessage(), ex);
+            LOGGER.warn("Couldn't record invocation in summary of " + loggingPlan.getMethodName() + ". Reason: " + ex.getMessage(), ex);
+        }
+    }
+
+    private void recordLatency(LoggingPlan loggingPlan, JoinPoint joinPoint, long elapsedNanos) {
+        var timedMethod = loggingPlan.getTimedMethod();
+        if(timedMethod == null) {
+            return;
+        }
+
+        timedMethod.record(elapsedNanos);
+
+        if(!timedMethod.hasLogger()) {
+            try {
+                timedMethod.setLogger(loggingPlan.getLogger(joinPoint.getTarget()));
+            } catch (Exception ex) {
+                LOGGER.warn("Couldn't get logger for latency reports of " + loggingPlan.getMethodName() + ". Reason: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private void logAfterReturning(LoggingPlan loggingPlan, JoinPoint joinPoint, Object result, long startNanos,
+                                   long elapsedNanos) {
+        doLog(loggingPlan, loggingPlan.getAfterStatements(), joinPoint, result, elapsedNanos);
+
+        if(loggingPlan.getCompletionStatements().length == 0) {
+            return;
+        }
+
+        if(result instanceof CompletionStage) {
+            ((CompletionStage<?>)result).whenComplete((value, failure) ->
+                    logOnCompletion(loggingPlan, joinPoint, value, failure, startNanos));
+        } else {
+            doLog(loggingPlan, loggingPlan.getCompletionStatements(), joinPoint, result, elapsedNanos);
         }
     }
 
-    private static Logger getLogger(Object target) throws Exception {
-        Field logField = target.getClass().getDeclaredField(LOG_FIELD_NAME);
+    /**
+     * Logs the statements waiting for completion of the returned stage, or the error statements if it failed.
+     * It's executed by the thread completing the stage, or by the calling thread if it was already completed.
+     */
+    private void logOnCompletion(LoggingPlan loggingPlan, JoinPoint joinPoint, Object value, Throwable failure,
+                                 long startNanos) {
+        if(failure != null) {
+            doLogError(loggingPlan, joinPoint, unwrap(failure));
+            return;
+        }
 
-        Logger logger = FieldAccessor.getStaticField(logField);
+        var elapsedNanos = loggingPlan.isMeasuringTime() ? System.nanoTime() - startNanos : ExpressionResolver.NOT_MEASURED;
+        doLog(loggingPlan, loggingPlan.getCompletionStatements(), joinPoint, value, elapsedNanos);
+    }
 
-        if(logger == null) {
-            logger = FieldAccessor.getInstanceField(logField, target);
+    private static Throwable unwrap(Throwable failure) {
+        if((failure instanceof CompletionException || failure instanceof ExecutionException) && failure.getCause() != null) {
+            return failure.getCause();
         }
 
-        return logger;
+        return failure;
     }
 
-    private static class FieldAccessor {
-        static <T> T getStaticField(Field field) throws Exception {
-            if(!isStatic(field.getModifiers())){
-                return null;
+    private void doLog(LoggingPlan loggingPlan, LogStatement[] logStatements, JoinPoint joinPoint, Object result, long elapsedNanos) {
+        if(logStatements.length == 0) {
+            return;
+        }
+
+
+        Logger logger;
+        try {
+            logger = loggingPlan.getLogger(joinPoint.getTarget());
+        } catch (Exception ex) {
+            LOGGER.warn("Couldn't get logger for annotated log message. Reason: " + ex.getMessage(), ex);
+            return;
+        }
+
+        Object[] methodArgs = null;
+        for(LogStatement logStatement : logStatements) {
+            var settings = logStatement.getSettings();
+            if(!logStatement.isEnabled(logger, settings)) {
+                continue;
             }
 
-            if(!field.canAccess(null)) {
-                field.setAccessible(true);
+            if(methodArgs == null && logStatement.hasCondition()) {
+                methodArgs = joinPoint.getArgs();
             }
 
-            Object fromStaticContext = null;
-            return getField(field, fromStaticContext);
-        }
+            if(!isConditionMet(logStatement, methodArgs, result, elapsedNanos) || !logStatement.isSampledIn(settings)) {
+                continue;
+            }
+
+            if(methodArgs == null) {
+                methodArgs = joinPoint.getArgs();
+            }
 
-        static <T> T getInstanceField(Field field, Object target) throws Exception {
-            if(!field.canAccess(null)) {
-                field.setAccessible(true);
+            if(logStatement.isAsync()) {
+                doLogAsync(logStatement, settings, logger, methodArgs, result, elapsedNanos);
+            } else {
+                doLogWithResult(logStatement, settings, logger, methodArgs, result, elapsedNanos);
             }
-            return getField(field, target);
         }
+    }
 
-        @SuppressWarnings("unchecked")
-        private static <T> T getField(Field field, Object target) throws Exception {
-            return (T)field.get(target);
+    private boolean isConditionMet(LogStatement logStatement, Object[] methodArgs, Object result, long elapsedNanos) {
+        try {
+            return logStatement.isConditionMet(methodArgs, result, elapsedNanos);
+        } catch (Exception ex) {
+            LOGGER.warn("Couldn't evaluate condition of annotated log message. Reason: " + ex.getMessage(), ex);
+            return false;
+        }
+    }
+
+    private void doLogAsync(LogStatement logStatement, StatementSettings settings, Logger logger, Object[] methodArgs,
+                            Object result, long elapsedNanos) {
+        var asyncLogDispatcher = AsyncLogging.dispatcher();
+
+        if(asyncLogDispatcher != null) {
+            asyncLogDispatcher.dispatch(logStatement, settings, logger, methodArgs, result, elapsedNanos);
+        } else {
+            doLogWithResult(logStatement, settings, logger, methodArgs, result, elapsedNanos);
+        }
+    }
+
+    private void doLogWithResult(LogStatement logStatement, StatementSettings settings, Logger logger,
+                                 Object[] methodArgs, Object result, long elapsedNanos) {
+        try {
+            logStatement.log(logger, settings, methodArgs, result, elapsedNanos);
+        } catch (Exception ex) {
+            LOGGER.warn("Couldn't log annotated log message. Reason: " + ex.getMessage(), ex);
         }
     }
 }
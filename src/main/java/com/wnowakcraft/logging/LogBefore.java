@@ -25,4 +25,77 @@ public @interface LogBefore {
      * @return the severity level
      * */
     Level level() default Level.DEBUG;
+
+    /**
+     * Defines a condition the log statement is logged on, as an expression referring to
+     * the method arguments <pre>p0..pN</pre>, e.g. <pre>p1 == null</pre>.
+     * It's compiled once, and evaluated after the level check and before sampling, so when it's not met,
+     * no expression of the message is evaluated. Empty, which is the default, means the statement is always logged.
+     *
+     * @return the condition of the log statement
+     * */
+    String when() default "";
+
+    /**
+     * Defines whether the log statement is logged asynchronously.
+     * When enabled, the calling thread only captures the method arguments and the result,
+     * and the message is resolved and logged by a background worker.
+     *
+     * @return true if the log statement is logged asynchronously
+     * @see AsyncLogging
+     * */
+    boolean async() default false;
+
+    /**
+     * Defines a fraction of invocations to be logged, between 0 and 1, e.g. <pre>0.01</pre> logs every
+     * invocation with 1% probability. By default, all invocations are logged.
+     *
+     * @return the fraction of invocations to be logged
+     * */
+    double sampleRate() default 1.0;
+
+    /**
+     * Defines the maximum number of messages logged by the log statement per second.
+     * Zero, which is the default, means there is no limit.
+     *
+     * @return the maximum number of messages per second
+     * */
+    int maxPerSecond() default 0;
+
+    /**
+     * Defines that only every n-th invocation is logged. By default, every invocation is logged.
+     * <p>
+     * When sampling settings suppress some invocations, their count is appended to the next logged message.
+     *
+     * @return n, where every n-th invocation is logged
+     * */
+    int everyNth() default 1;
+
+    /**
+     * Defines a window in milliseconds, within which identical messages of the log statement are logged only once.
+     * Repetitions of a message are counted, and their number is logged when the window closes.
+     * Zero, which is the default, means messages are not deduplicated.
+     *
+     * @return the deduplication window in milliseconds
+     * */
+    long dedupWindowMillis() default 0;
+
+    /**
+     * Defines how the resolved expressions are logged: substituted into the message, as key-value pairs,
+     * or both. Keys are given by aliases, e.g. <pre>{orderId=p0.getId()}</pre>, or derived from the expressions.
+     * On latency-critical paths, they may be captured into a binary file instead, and formatted later.
+     *
+     * @return the output of the log statement
+     * @see LogOutput
+     * */
+    LogOutput output() default LogOutput.MESSAGE;
+
+    /**
+     * Defines the limits of rendering the resolved expressions, overriding the global ones, e.g.
+     * <pre>limits = @RenderLimits(maxLength = 200, maxElements = 10)</pre>.
+     *
+     * @return the rendering limits of the log statement
+     * @see ParamRendering
+     * */
+    RenderLimits limits() default @RenderLimits;
 }
@@ -0,0 +1,76 @@
+package com.wnowakcraft.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Entry point of the deferred binary capture of log statements with {@link LogOutput#CAPTURE} output.
+ * Instead of formatting their messages, such statements write compact binary records into a preallocated,
+ * memory-mapped ring file: the number of the statement, the level, the timestamp, and the resolved expressions
+ * as primitives or strings. The messages are formatted later, by {@link LogCaptureDecoder}.
+ * <p>
+ * The file is written by the operating system from the mapped memory, so records survive a crash of the process.
+ */
+public final class LogCapture {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogCapture.class);
+    private static volatile CaptureSettings settings = CaptureSettings.builder().build();
+    private static volatile CaptureFile file;
+
+    private LogCapture() { }
+
+    /**
+     * Configures the capture, creating a new capture file. Records captured into the previous file are flushed,
+     * and the previous file is no longer written.
+     *
+     * @param settings capture settings; without the file, log statements with capture output log their messages as usual
+     * @throws UncheckedIOException if the file couldn't be created
+     */
+    public static synchronized void configure(CaptureSettings settings) {
+        var previousFile = file;
+
+        try {
+            file = settings.getFile() != null ? CaptureFile.create(settings) : null;
+        } catch (IOException ex) {
+            file = null;
+            throw new UncheckedIOException("Couldn't create capture file " + settings.getFile(), ex);
+        } finally {
+            LogCapture.settings = settings;
+            flush(previousFile);
+        }
+    }
+
+    /**
+     * Returns the current capture settings.
+     *
+     * @return the current settings
+     */
+    public static CaptureSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Forces the captured records to be written to the storage device.
+     */
+    public static void flush() {
+        flush(file);
+    }
+
+    static CaptureFile getFile() {
+        return file;
+    }
+
+    private static void flush(CaptureFile captureFile) {
+        if(captureFile == null) {
+            return;
+        }
+
+        try {
+            captureFile.flush();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Couldn't flush capture file. Reason: " + ex.getMessage(), ex);
+        }
+    }
+}
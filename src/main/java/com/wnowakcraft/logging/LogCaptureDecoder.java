@@ -0,0 +1,193 @@
+package com.wnowakcraft.logging;
+
+import org.slf4j.helpers.MessageFormatter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.wnowakcraft.logging.CaptureFile.*;
+
+/**
+ * Decoder of capture files written by {@link LogCapture}, formatting the captured records into the messages
+ * the log statements would have logged with {@link LogOutput#MESSAGE} output. It reads a snapshot of the file,
+ * so it may be used while the file is still being written; records being written at that moment, or torn otherwise,
+ * are skipped together with the rest of their segment.
+ * <p>
+ * It can be run as a tool as well, printing the messages of the given file:
+ * <pre>java -cp annotated-logging.jar:slf4j-api.jar com.wnowakcraft.logging.LogCaptureDecoder capture.bin</pre>
+ */
+public final class LogCaptureDecoder {
+    private static final String TRUNCATION_MARKER = "...";
+
+    private LogCaptureDecoder() { }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 1) {
+            System.err.println("Usage: LogCaptureDecoder <capture file>");
+            System.exit(1);
+        }
+
+        for(var message : decode(Path.of(args[0]))) {
+            System.out.println(message);
+        }
+    }
+
+    /**
+     * Decodes the captured messages, from the oldest to the newest one.
+     *
+     * @param file capture file
+     * @return the captured messages
+     * @throws IOException if the file couldn't be read
+     * @throws IllegalArgumentException if the file is not a capture file
+     */
+    public static List<CapturedMessage> decode(Path file) throws IOException {
+        var buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(BYTE_ORDER);
+
+        if(buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException(file + " is not a capture file of version " + VERSION);
+        }
+
+        var segmentSize = buffer.getInt(SEGMENT_SIZE_OFFSET);
+        var ringStart = HEADER_SIZE + buffer.getInt(DICTIONARY_CAPACITY_OFFSET);
+        var ringCapacity = buffer.getInt(RING_CAPACITY_OFFSET);
+        var statements = readDictionary(buffer, buffer.getInt(DEFINITIONS_COUNT_OFFSET));
+        var writePosition = buffer.getLong(WRITE_POSITION_OFFSET);
+
+        var position = Math.max(writePosition - ringCapacity, 0);
+        position = (position + segmentSize - 1) / segmentSize * segmentSize;
+
+        var messages = new ArrayList<CapturedMessage>();
+        while(position < writePosition) {
+            var segmentEnd = (position / segmentSize + 1) * segmentSize;
+            var offset = ringStart + (int)(position % ringCapacity);
+            var recordSize = buffer.getInt(offset);
+            var statement = statements.get(buffer.getInt(offset + 8));
+
+            if(recordSize < RECORD_HEADER_SIZE || position + recordSize > segmentEnd ||
+                    buffer.getInt(offset + 4) != (int)(position / ringCapacity) || statement == null) {
+                position = segmentEnd;
+                continue;
+            }
+
+            try {
+                messages.add(decodeRecord(buffer, offset, offset + recordSize, statement));
+                position += recordSize;
+            } catch (RuntimeException ex) {
+                position = segmentEnd;
+            }
+        }
+
+        return messages;
+    }
+
+    private static Map<Integer, String[]> readDictionary(ByteBuffer buffer, int definitionsCount) {
+        var statements = new HashMap<Integer, String[]>();
+        var offset = HEADER_SIZE;
+
+        for(var i = 0; i < definitionsCount; i++) {
+            var number = buffer.getInt(offset);
+            var statementId = getChars(buffer, offset + 4);
+            offset += 8 + 2 * statementId.length();
+            var messagePattern = getChars(buffer, offset);
+            offset += 4 + 2 * messagePattern.length();
+            statements.put(number, new String[] { statementId, messagePattern });
+        }
+
+        return statements;
+    }
+
+    /**
+     * Decodes a single record, which may be torn, if it was being written when the file was read.
+     * Values are read from a view of the record only, so a torn record can't be decoded past its end.
+     *
+     * @throws RuntimeException if the record can't be decoded, since it's torn
+     */
+    private static CapturedMessage decodeRecord(ByteBuffer buffer, int offset, int recordEnd, String[] statement) {
+        var record = buffer.duplicate().order(BYTE_ORDER).limit(recordEnd);
+        var level = levelOf(record.get(offset + 12));
+        var params = new Object[record.get(offset + 13) & 0xff];
+        var timestamp = Instant.ofEpochMilli(record.getLong(offset + 16));
+
+        var valueOffset = offset + RECORD_HEADER_SIZE;
+        for(var i = 0; i < params.length; i++) {
+            var tag = record.get(valueOffset++);
+            switch(tag) {
+                case NULL:
+                    break;
+                case STRING:
+                case TRUNCATED_STRING:
+                    var string = getChars(record, valueOffset);
+                    valueOffset += 4 + 2 * string.length();
+                    params[i] = tag == STRING ? string : string + TRUNCATION_MARKER;
+                    break;
+                case INT:
+                    params[i] = record.getInt(valueOffset);
+                    valueOffset += 4;
+                    break;
+                case LONG:
+                    params[i] = record.getLong(valueOffset);
+                    valueOffset += 8;
+                    break;
+                case DOUBLE:
+                    params[i] = record.getDouble(valueOffset);
+                    valueOffset += 8;
+                    break;
+                case FLOAT:
+                    params[i] = record.getFloat(valueOffset);
+                    valueOffset += 4;
+                    break;
+                case BOOLEAN:
+                    params[i] = record.get(valueOffset) != 0;
+                    valueOffset += 1;
+                    break;
+                case CHAR:
+                    params[i] = record.getChar(valueOffset);
+                    valueOffset += 2;
+                    break;
+                case SHORT:
+                    params[i] = record.getShort(valueOffset);
+                    valueOffset += 2;
+                    break;
+                case BYTE:
+                    params[i] = record.get(valueOffset);
+                    valueOffset += 1;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown value tag " + tag + " at offset " + (valueOffset - 1));
+            }
+        }
+
+        var message = MessageFormatter.arrayFormat(statement[1], params).getMessage();
+        return new CapturedMessage(timestamp, level, statement[0], message);
+    }
+
+    private static Level levelOf(byte ordinal) {
+        var levels = Level.values();
+        if(ordinal < 0 || ordinal >= levels.length) {
+            throw new IllegalArgumentException("Unknown level " + ordinal);
+        }
+
+        return levels[ordinal];
+    }
+
+    private static String getChars(ByteBuffer buffer, int offset) {
+        var length = buffer.getInt(offset);
+        if(length < 0 || length > (buffer.limit() - offset - 4) / 2) {
+            throw new IllegalArgumentException("String of length " + length + " at offset " + offset + " exceeds the buffer");
+        }
+
+        var chars = new char[length];
+        for(var i = 0; i < length; i++) {
+            chars[i] = buffer.getChar(offset + 4 + 2 * i);
+        }
+
+        return new String(chars);
+    }
+}
@@ -0,0 +1,101 @@
+package com.wnowakcraft.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free, multi-producer multi-consumer ring buffer.
+ * Every slot has its own sequence number telling whether the slot is ready to be written or read
+ * in the current lap, so producers and consumers only contend on their own position counters.
+ *
+ * @param <E> type of elements
+ */
+class LogEventRingBuffer<E> {
+    static final int MAX_CAPACITY = 1 << 30;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private final AtomicLong consumerPosition = new AtomicLong();
+
+    LogEventRingBuffer(int requestedCapacity) {
+        if(requestedCapacity < 2 || requestedCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Ring buffer capacity must be between 2 and " + MAX_CAPACITY +
+                    ", but was " + requestedCapacity);
+        }
+
+        var capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+
+        for(var i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * Adds the element unless the buffer is full.
+     *
+     * @param element element to be added
+     * @return true if the element was added, false if the buffer was full
+     */
+    boolean offer(E element) {
+        var position = producerPosition.get();
+
+        while(true) {
+            var index = (int)position & mask;
+            var sequenceDifference = sequences.get(index) - position;
+
+            if(sequenceDifference == 0) {
+                if(producerPosition.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = producerPosition.get();
+            } else if(sequenceDifference < 0) {
+                return false;
+            } else {
+                position = producerPosition.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest element.
+     *
+     * @return the oldest element, or null if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        var position = consumerPosition.get();
+
+        while(true) {
+            var index = (int)position & mask;
+            var sequenceDifference = sequences.get(index) - (position + 1);
+
+            if(sequenceDifference == 0) {
+                if(consumerPosition.compareAndSet(position, position + 1)) {
+                    var element = (E)elements[index];
+                    elements[index] = null;
+                    sequences.lazySet(index, position + elements.length);
+                    return element;
+                }
+                position = consumerPosition.get();
+            } else if(sequenceDifference < 0) {
+                return null;
+            } else {
+                position = consumerPosition.get();
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return consumerPosition.get() >= producerPosition.get();
+    }
+}
@@ -1,66 +1,360 @@
 package com.wnowakcraft.logging;
 
+import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.jexl3.JexlBuilder;
-import org.apache.commons.jexl3.JexlException;
-import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.jexl3.JexlContext;
+import org.slf4j.spi.LoggingEventBuilder;
 
-import java.util.LinkedList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-@RequiredArgsConstructor
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+/**
+ * Compiled form of a log message template.
+ * The template is parsed only once, when the resolver is created: the clean SLF4J pattern is built
+ * and all the expressions referred in the template are compiled, so resolving the params of a particular
+ * invocation only evaluates already compiled expressions.
+ */
 class LogMessageParamsResolver {
     private static final String PARAM_START = "\\{";
     private static final String ANY_SPACES = "\\s*";
+    private static final String OPTIONAL_ALIAS = "(?:(\\w+)" + ANY_SPACES + "=" + ANY_SPACES + ")?";
     private static final String EXPR_START = "(";
-    private static final String PARAM_OR_RETURN_VALUE_MARKER = "(?:p\\d+|r)";
+    private static final String PARAM_OR_RETURN_VALUE_MARKER = "(?:p\\d+|r|elapsed|e)";
     private static final String EXPR_END = ")";
     private static final String ANY_MEMBER_EXPRESSION = "(\\.[\\w\\[\\]\\(\\)]+)*";
     private static final String PARAM_END = "}";
+    private static final String SLF4J_PARAM_PLACEHOLDER = "{}";
     private static final Pattern MESSAGE_PARAMS_PATTERN = Pattern.compile(
-            PARAM_START + ANY_SPACES + EXPR_START + PARAM_OR_RETURN_VALUE_MARKER + ANY_MEMBER_EXPRESSION+ EXPR_END + ANY_SPACES + PARAM_END
+            PARAM_START + ANY_SPACES + OPTIONAL_ALIAS + EXPR_START + PARAM_OR_RETURN_VALUE_MARKER + ANY_MEMBER_EXPRESSION+ EXPR_END + ANY_SPACES + PARAM_END
     );
-    private final String messageTemplate;
+    private static final String GETTER_PREFIX = "get";
+    private static final String BOOLEAN_GETTER_PREFIX = "is";
+    private static final int MAX_CACHED_TEMPLATES = 4096;
+    private static final Map<String, LogMessageParamsResolver> COMPILED_TEMPLATES = new ConcurrentHashMap<>();
+    private static final LongAdder CACHE_HITS = new LongAdder();
+    private static final LongAdder CACHE_MISSES = new LongAdder();
+    // declared outside ExpressionResolver, where JexlContext.ThreadLocal shadows java.lang.ThreadLocal
+    private static final ThreadLocal<ExpressionResolver> REUSABLE_RESOLVERS =
+            ThreadLocal.withInitial(ExpressionResolver::new);
+
+    private final String cleanLogMessageTemplate;
+    private final String keyValuesLogMessage;
+    private final ExpressionResolver.CompiledExpression[] expressions;
+    private final String[] keys;
+
+    LogMessageParamsResolver(String messageTemplate) {
+        var matcher = MESSAGE_PARAMS_PATTERN.matcher(messageTemplate);
+        var cleanTemplate = new StringBuilder(messageTemplate.length());
+        var keyValuesMessage = new StringBuilder(messageTemplate.length());
+        var compiledExpressions = new ArrayList<ExpressionResolver.CompiledExpression>();
+        var expressionKeys = new ArrayList<String>();
+        var textStart = 0;
+
+        while(matcher.find()) {
+            var expression = matcher.group(2).trim();
+            var key = matcher.group(1) != null ? matcher.group(1) : deriveKey(expression);
+            var text = messageTemplate.substring(textStart, matcher.start());
+
+            compiledExpressions.add(ExpressionResolver.compile(expression));
+            expressionKeys.add(key);
+            cleanTemplate.append(text).append(SLF4J_PARAM_PLACEHOLDER);
+            keyValuesMessage.append(text).append('{').append(key).append('}');
+            textStart = matcher.end();
+        }
+        cleanTemplate.append(messageTemplate, textStart, messageTemplate.length());
+        keyValuesMessage.append(messageTemplate, textStart, messageTemplate.length());
+
+        this.cleanLogMessageTemplate = cleanTemplate.toString();
+        this.keyValuesLogMessage = keyValuesMessage.toString();
+        this.expressions = compiledExpressions.toArray(ExpressionResolver.CompiledExpression[]::new);
+        this.keys = expressionKeys.toArray(String[]::new);
+    }
+
+    /**
+     * Derives a key of an expression having no alias from its last member, e.g. <pre>id</pre> for
+     * <pre>p0.getCustomer().getId()</pre>, <pre>active</pre> for <pre>r.isActive()</pre>, or from its root param,
+     * e.g. <pre>p0</pre> for <pre>p0</pre>.
+     */
+    static String deriveKey(String expression) {
+        var member = expression.substring(expression.lastIndexOf('.') + 1);
+        var memberNameEnd = member.length();
+        for(var i = 0; i < member.length(); i++) {
+            if(member.charAt(i) == '(' || member.charAt(i) == '[') {
+                memberNameEnd = i;
+                break;
+            }
+        }
+        member = member.substring(0, memberNameEnd);
+
+        if(isPrefixedWith(member, GETTER_PREFIX)) {
+            return decapitalize(member.substring(GETTER_PREFIX.length()));
+        }
 
+        if(isPrefixedWith(member, BOOLEAN_GETTER_PREFIX)) {
+            return decapitalize(member.substring(BOOLEAN_GETTER_PREFIX.length()));
+        }
+
+        return member;
+    }
+
+    private static boolean isPrefixedWith(String member, String prefix) {
+        return member.length() > prefix.length() && member.startsWith(prefix) &&
+                Character.isUpperCase(member.charAt(prefix.length()));
+    }
+
+    private static String decapitalize(String name) {
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Returns compiled form of the given message template.
+     * Compiled templates are cached, so the same template is parsed only once.
+     * The cache is bounded; when it's full, templates are still compiled, but not cached any longer.
+     */
     static LogMessageParamsResolver forMessageTemplate(String messageTemplate) {
-        return new LogMessageParamsResolver(messageTemplate);
+        var compiledTemplate = COMPILED_TEMPLATES.get(messageTemplate);
+
+        if(compiledTemplate != null) {
+            CACHE_HITS.increment();
+        } else {
+            CACHE_MISSES.increment();
+            compiledTemplate = new LogMessageParamsResolver(messageTemplate);
+
+            if(COMPILED_TEMPLATES.size() < MAX_CACHED_TEMPLATES) {
+                var concurrentlyCompiledTemplate = COMPILED_TEMPLATES.putIfAbsent(messageTemplate, compiledTemplate);
+                if(concurrentlyCompiledTemplate != null) {
+                    compiledTemplate = concurrentlyCompiledTemplate;
+                }
+            }
+        }
+
+        return compiledTemplate;
+    }
+
+    static long getCacheHits() {
+        return CACHE_HITS.sum();
+    }
+
+    static long getCacheMisses() {
+        return CACHE_MISSES.sum();
+    }
+
+    static void resetCacheStatistics() {
+        CACHE_HITS.reset();
+        CACHE_MISSES.reset();
     }
 
     Object[] getParamsReferredInTemplate(Object[] contextParams, Object result) {
+        var expressionResolver = ExpressionResolver.acquire(contextParams, result);
 
-        var expressionResolver = new ExpressionResolver(contextParams, result);
-        var matcher = MESSAGE_PARAMS_PATTERN.matcher(messageTemplate);
-        var resolvedParams = new LinkedList<>();
+        try {
+            return getParamsReferredInTemplate(expressionResolver);
+        } finally {
+            expressionResolver.release();
+        }
+    }
 
-        while(matcher.find()) {
-            var expression = matcher.group(1);
-            resolvedParams.add(expressionResolver.resolve(expression));
+    Object[] getParamsReferredInTemplate(ExpressionResolver expressionResolver) {
+        var resolvedParams = new Object[expressions.length];
+
+        for(var i = 0; i < expressions.length; i++) {
+            resolvedParams[i] = expressionResolver.resolve(expressions[i]);
         }
 
-        return resolvedParams.toArray();
+        return resolvedParams;
+    }
+
+    Object getParamReferredInTemplate(int paramIndex, ExpressionResolver expressionResolver) {
+        return expressionResolver.resolve(expressions[paramIndex]);
+    }
+
+    int getParamsCount() {
+        return expressions.length;
     }
 
     String getCleanLogMessageTemplate() {
-        return messageTemplate.replaceAll(MESSAGE_PARAMS_PATTERN.pattern(), "{}");
+        return cleanLogMessageTemplate;
+    }
+
+    /**
+     * Returns the message template with every expression replaced by its key in curly brackets,
+     * e.g. <pre>Found {orderId}</pre> for <pre>Found {orderId=r.getId()}</pre>.
+     */
+    String getKeyValuesLogMessage() {
+        return keyValuesLogMessage;
+    }
+
+    String getKey(int paramIndex) {
+        return keys[paramIndex];
+    }
+
+    /**
+     * Adds the given resolved params to the log event as key-value pairs, under the keys of their expressions.
+     */
+    LoggingEventBuilder addKeyValues(LoggingEventBuilder eventBuilder, Object[] params) {
+        for(var i = 0; i < keys.length; i++) {
+            eventBuilder = eventBuilder.addKeyValue(keys[i], params[i]);
+        }
+
+        return eventBuilder;
+    }
+
+    /**
+     * Returns names of the root params of all the expressions referred in the template, in their order,
+     * e.g. <pre>p0</pre>, <pre>r</pre>, <pre>elapsed</pre> or <pre>e</pre>.
+     */
+    List<String> getReferredParams() {
+        return Arrays.stream(expressions)
+                .map(expression -> expression.rootParamName)
+                .collect(toUnmodifiableList());
     }
 
-    static class ExpressionResolver {
-        private static final String PARAM = "p";
-        private static final String RESULT = "r";
+    boolean refersToParam(String paramName) {
+        return Arrays.stream(expressions).anyMatch(expression -> paramName.equals(expression.rootParamName));
+    }
+
+    /**
+     * Evaluates compiled expressions against the arguments and the result of a single method invocation.
+     * It's also the JEXL context exposing them as <pre>p0..pN</pre> and <pre>r</pre> variables,
+     * the execution time of the method as <pre>elapsed</pre> {@link Duration}, when it was measured,
+     * and the exception thrown by the method as <pre>e</pre>.
+     * Expressions are compiled by {@link PropertyPathExpressionEngine}, which falls back to {@link JexlExpressionEngine}
+     * for expressions other than plain property paths.
+     * Resolvers are reused by threads, so resolving params of an invocation doesn't allocate a new context.
+     */
+    static class ExpressionResolver implements JexlContext {
+        static final String PARAM = "p";
+        static final String RESULT = "r";
+        static final String ELAPSED = "elapsed";
+        static final String EXCEPTION = "e";
+        static final long NOT_MEASURED = -1;
+        static final int NOT_A_PARAM = -1;
+        private static final int RESULT_PARAM_INDEX = -2;
+        private static final int ELAPSED_PARAM_INDEX = -3;
+        private static final int EXCEPTION_PARAM_INDEX = -4;
         private static final Pattern STARTS_WITH_PARAM_OR_RETURN_VALUE_MARKER =
                 Pattern.compile("^" + PARAM_OR_RETURN_VALUE_MARKER);
-        private final MapContext contextParams = new MapContext();
+        private static final Pattern PARAM_OR_RETURN_VALUE_VARIABLE =
+                Pattern.compile("(?<![\\w.])" + PARAM_OR_RETURN_VALUE_MARKER + "(?!\\w)");
+        private static final Pattern STRING_LITERAL = Pattern.compile("'[^']*'|\"[^\"]*\"");
+        private static final ExpressionEngine EXPRESSION_ENGINE = new PropertyPathExpressionEngine(new JexlExpressionEngine());
+        private Object[] methodArgs;
+        private Object result;
+        private long elapsedNanos = NOT_MEASURED;
+        private Throwable exception;
+        private boolean inUse;
+
+        private ExpressionResolver() { }
 
-        ExpressionResolver(Object[] expressionContextParams, Object result) {
-            for(var i = 0; i< expressionContextParams.length; i++) {
-                contextParams.set(PARAM + i, getValueFrom(expressionContextParams[i]));
+        /**
+         * Returns a resolver for the given invocation, which must be released after use.
+         * The thread's reusable resolver is returned, unless it's already in use by the same thread,
+         * e.g. when a method called by an expression logs itself.
+         */
+        static ExpressionResolver acquire(Object[] methodArgs, Object result) {
+            return acquire(methodArgs, result, NOT_MEASURED);
+        }
+
+        static ExpressionResolver acquire(Object[] methodArgs, Object result, long elapsedNanos) {
+            var expressionResolver = REUSABLE_RESOLVERS.get();
+
+            if(expressionResolver.inUse) {
+                expressionResolver = new ExpressionResolver();
+            }
+
+            expressionResolver.inUse = true;
+            expressionResolver.methodArgs = methodArgs;
+            expressionResolver.result = result;
+            expressionResolver.elapsedNanos = elapsedNanos;
+            return expressionResolver;
+        }
+
+        static ExpressionResolver acquireForError(Object[] methodArgs, Throwable exception) {
+            var expressionResolver = acquire(methodArgs, null, NOT_MEASURED);
+            expressionResolver.exception = exception;
+            return expressionResolver;
+        }
+
+        void release() {
+            methodArgs = null;
+            result = null;
+            elapsedNanos = NOT_MEASURED;
+            exception = null;
+            inUse = false;
+        }
+
+        static CompiledExpression compile(String expression) {
+            var trimmedExpression = expression.trim();
+            var rootParamName = getRootParamName(trimmedExpression);
+
+            return new CompiledExpression(
+                    EXPRESSION_ENGINE.compile(trimmedExpression), rootParamName, getParamIndex(rootParamName)
+            );
+        }
+
+        /**
+         * Returns names of all the params referred as variables by the given expression, e.g. <pre>p1</pre> and
+         * <pre>r</pre> for <pre>p1 == null || r.size() &gt; 1000</pre>, skipping string literals.
+         */
+        static Set<String> getReferredParams(String expression) {
+            var referredParams = new LinkedHashSet<String>();
+            var matcher = PARAM_OR_RETURN_VALUE_VARIABLE.matcher(STRING_LITERAL.matcher(expression).replaceAll("''"));
+
+            while(matcher.find()) {
+                referredParams.add(matcher.group());
+            }
+
+            return referredParams;
+        }
+
+        private static String getRootParamName(String expression) {
+            Matcher expressionRootParamMatcher = STARTS_WITH_PARAM_OR_RETURN_VALUE_MARKER.matcher(expression);
+            return expressionRootParamMatcher.find() ? expressionRootParamMatcher.group() : null;
+        }
+
+        static int getParamIndex(String name) {
+            if(name == null) {
+                return NOT_A_PARAM;
+            }
+
+            if(RESULT.equals(name)) {
+                return RESULT_PARAM_INDEX;
+            }
+
+            if(ELAPSED.equals(name)) {
+                return ELAPSED_PARAM_INDEX;
+            }
+
+            if(EXCEPTION.equals(name)) {
+                return EXCEPTION_PARAM_INDEX;
             }
 
-            if(result != null) {
-                contextParams.set(RESULT, getValueFrom(result));
+            if(name.length() < 2 || !name.startsWith(PARAM)) {
+                return NOT_A_PARAM;
             }
+
+            var index = 0;
+            for(var i = PARAM.length(); i < name.length(); i++) {
+                var digit = name.charAt(i) - '0';
+                if(digit < 0 || digit > 9 || index > (Integer.MAX_VALUE - digit) / 10) {
+                    return NOT_A_PARAM;
+                }
+                index = index * 10 + digit;
+            }
+
+            return index;
         }
 
         private static Object getValueFrom(Object result) {
@@ -68,37 +362,88 @@ class LogMessageParamsResolver {
             ((Optional)result).orElse(null) : result;
         }
 
-        Object resolve(String expression) {
-            return evaluateWithPossibleNullValues(expression.trim());
-        }
-
-        private Object evaluateWithPossibleNullValues(String expression) {
+        Object resolve(CompiledExpression expression) {
             if(hasNullExpressionRootParam(expression)) {
                 return null;
             }
 
-            var jexlExpression = new JexlBuilder().create().createExpression(expression);
+            return expression.expression.evaluate(this);
+        }
+
+        /**
+         * Tells whether the given condition is met. Unlike resolving expressions, the condition is evaluated
+         * even if its root param is null, so conditions like <pre>p1 == null</pre> can be met.
+         */
+        boolean test(CompiledExpression condition) {
+            return Boolean.TRUE.equals(condition.expression.evaluate(this));
+        }
 
-            try {
-                return jexlExpression.evaluate(contextParams);
-            } catch (JexlException.Variable ex) {
-                if(ex.isUndefined() || ex.getMessage().contains("null value variable")) {
-                    return null;
-                }
+        private boolean hasNullExpressionRootParam(CompiledExpression expression) {
+            var rootParamIndex = expression.rootParamIndex;
+            return rootParamIndex != NOT_A_PARAM && hasParam(rootParamIndex) && getParam(rootParamIndex) == null;
+        }
+
+        private boolean hasParam(int paramIndex) {
+            if(paramIndex == RESULT_PARAM_INDEX) {
+                return result != null;
+            }
+
+            if(paramIndex == ELAPSED_PARAM_INDEX) {
+                return elapsedNanos != NOT_MEASURED;
+            }
 
-                throw ex;
+            if(paramIndex == EXCEPTION_PARAM_INDEX) {
+                return exception != null;
             }
+
+            return paramIndex >= 0 && paramIndex < methodArgs.length;
         }
 
-        private boolean hasNullExpressionRootParam(String expression) {
-            Matcher expressionRootParamMatcher = STARTS_WITH_PARAM_OR_RETURN_VALUE_MARKER.matcher(expression);
+        private Object getParam(int paramIndex) {
+            if(paramIndex == ELAPSED_PARAM_INDEX) {
+                return Duration.ofNanos(elapsedNanos);
+            }
 
-            if(expressionRootParamMatcher.find()) {
-                var exprRootParamName = expressionRootParamMatcher.group();
-                return contextParams.has(exprRootParamName) && contextParams.get(exprRootParamName) == null;
+            if(paramIndex == EXCEPTION_PARAM_INDEX) {
+                return exception;
             }
 
-            return false;
+            return getValueFrom(paramIndex == RESULT_PARAM_INDEX ? result : methodArgs[paramIndex]);
+        }
+
+        /**
+         * Returns the param of the given index, with the value of an optional param extracted,
+         * or null if there's no such param.
+         */
+        Object getParamOrNull(int paramIndex) {
+            return hasParam(paramIndex) ? getParam(paramIndex) : null;
+        }
+
+        @Override
+        public Object get(String name) {
+            return getParamOrNull(getParamIndex(name));
+        }
+
+        /**
+         * Tells whether the variable is defined. The return value is always defined, even if it's null,
+         * so conditions like <pre>r == null</pre> can be met.
+         */
+        @Override
+        public boolean has(String name) {
+            var paramIndex = getParamIndex(name);
+            return paramIndex == RESULT_PARAM_INDEX || hasParam(paramIndex);
+        }
+
+        @Override
+        public void set(String name, Object value) {
+            throw new UnsupportedOperationException("Expressions in log templates can't assign variables");
+        }
+
+        @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+        static class CompiledExpression {
+            private final ExpressionEngine.Expression expression;
+            private final String rootParamName;
+            private final int rootParamIndex;
         }
     }
 }
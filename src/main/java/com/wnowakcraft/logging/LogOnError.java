@@ -0,0 +1,55 @@
+package com.wnowakcraft.logging;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation being used to log when the annotated method throws an exception.
+ * It can be only put at method level, and it's repeatable.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Repeatable(LogOnErrorEntries.class)
+public @interface LogOnError {
+    /**
+     * Defines a message to be logged by the log statement.
+     * Message can also contain expression(s) referencing either input parameters or the thrown exception
+     * enclosed by curly brackets, e.g. <pre>{p0.getId()}</pre> or <pre>{e.getMessage()}</pre>.
+     *
+     *  @return the log message
+     * */
+    String value();
+
+    /**
+     * Defines a severity level of the log statement.
+     *
+     * @return the severity level
+     * */
+    Level level() default Level.ERROR;
+
+    /**
+     * Defines how many full stack traces of the same exception type are logged by the log statement per minute.
+     * Beyond that, only the message is logged, followed by the exception's class and message and
+     * the number of stack traces omitted within the current minute. Zero means stack traces are never logged.
+     *
+     * @return the maximum number of logged stack traces per minute and exception type
+     * */
+    int stackTracesPerMinute() default 10;
+
+    /**
+     * Defines how the resolved expressions are logged: substituted into the message, as key-value pairs,
+     * or both. Keys are given by aliases, e.g. <pre>{orderId=p0.getId()}</pre>, or derived from the expressions.
+     *
+     * @return the output of the log statement
+     * @see LogOutput
+     * */
+    LogOutput output() default LogOutput.MESSAGE;
+
+    /**
+     * Defines the limits of rendering the resolved expressions, overriding the global ones, e.g.
+     * <pre>limits = @RenderLimits(maxLength = 200, maxElements = 10)</pre>.
+     *
+     * @return the rendering limits of the log statement
+     * @see ParamRendering
+     * */
+    RenderLimits limits() default @RenderLimits;
+}
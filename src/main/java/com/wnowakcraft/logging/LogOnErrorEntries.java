@@ -0,0 +1,23 @@
+package com.wnowakcraft.logging;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation being used to define multiple {@link LogOnError} annotations on a single method.
+ * This annotation can be used explicitly and implicitly, as Java will use it by default when it finds more than one
+ * {@link LogOnError} annotation on a specific method.
+ * For the sake of code readability, the recommended way is to use it implicitly wherever possible.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface LogOnErrorEntries {
+    /**
+     * Defines an array of {@link LogOnError} annotations.
+     *
+     * @return array of {@link LogOnError} annotations
+     * */
+    LogOnError[] value();
+}
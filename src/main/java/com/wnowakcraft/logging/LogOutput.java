@@ -0,0 +1,29 @@
+package com.wnowakcraft.logging;
+
+/**
+ * Defines how the expressions of a log template are logged.
+ * Key-value pairs are added through the SLF4J fluent API, so appenders supporting them can encode them
+ * as separate fields, without parsing the message. Keys are given by aliases, e.g. <pre>{orderId=p0.getId()}</pre>,
+ * or derived from the expressions, e.g. <pre>id</pre> for <pre>{p0.getId()}</pre> and <pre>p0</pre> for <pre>{p0}</pre>.
+ */
+public enum LogOutput {
+    /** Resolved expressions are substituted into the message */
+    MESSAGE,
+
+    /** Resolved expressions are logged as key-value pairs, while the message contains their keys, e.g. <pre>Found {orderId}</pre> */
+    KEY_VALUES,
+
+    /** Resolved expressions are both substituted into the message and logged as key-value pairs */
+    MESSAGE_AND_KEY_VALUES,
+
+    /**
+     * Resolved expressions are captured into the binary capture file of {@link LogCapture}, and formatted later
+     * by {@link LogCaptureDecoder}. Without the capture file, the message is logged as with {@link #MESSAGE}.
+     * Not supported by {@link LogOnError}.
+     */
+    CAPTURE;
+
+    boolean addsKeyValues() {
+        return this == KEY_VALUES || this == MESSAGE_AND_KEY_VALUES;
+    }
+}
@@ -0,0 +1,106 @@
+package com.wnowakcraft.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether a particular invocation of a log statement is logged, according to its sampling settings:
+ * every n-th invocation, random sample rate, and maximum number of messages per second.
+ * Invocations which are not logged are counted, so the count can be reported with the next logged message.
+ */
+class LogSampler {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final int COUNT_BITS = 32;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final int everyNth;
+    private final double sampleRate;
+    private final int maxPerSecond;
+    private final LongSupplier nanoClock;
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong currentSecondPermits = new AtomicLong();
+    private final LongAdder suppressedInvocations = new LongAdder();
+
+    LogSampler(int everyNth, double sampleRate, int maxPerSecond, LongSupplier nanoClock) {
+        this.everyNth = everyNth;
+        this.sampleRate = sampleRate;
+        this.maxPerSecond = maxPerSecond;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Creates a sampler for the given settings.
+     *
+     * @return the sampler, or null if the settings don't limit logging at all
+     */
+    static LogSampler of(int everyNth, double sampleRate, int maxPerSecond) {
+        if(everyNth <= 1 && sampleRate >= 1.0 && maxPerSecond <= 0) {
+            return null;
+        }
+
+        return new LogSampler(everyNth, sampleRate, maxPerSecond, System::nanoTime);
+    }
+
+    /**
+     * Tells whether the current invocation should be logged. If not, it's counted as suppressed.
+     *
+     * @return true if the current invocation should be logged
+     */
+    boolean sample() {
+        if(isSampledIn()) {
+            return true;
+        }
+
+        suppressedInvocations.increment();
+        return false;
+    }
+
+    private boolean isSampledIn() {
+        if(everyNth > 1 && invocations.getAndIncrement() % everyNth != 0) {
+            return false;
+        }
+
+        if(sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return false;
+        }
+
+        return maxPerSecond <= 0 || tryAcquirePermit();
+    }
+
+    /**
+     * Acquires one of the permits of the current second. The second and the number of permits already
+     * acquired within it are packed into a single long, so they are updated together by a single CAS.
+     */
+    private boolean tryAcquirePermit() {
+        var currentSecond = nanoClock.getAsLong() / NANOS_PER_SECOND;
+
+        while(true) {
+            var secondPermits = currentSecondPermits.get();
+            var permitsSecond = secondPermits >>> COUNT_BITS;
+            var acquiredPermits = secondPermits & COUNT_MASK;
+
+            if(permitsSecond != (currentSecond & COUNT_MASK)) {
+                var firstPermitOfSecond = (currentSecond << COUNT_BITS) | 1;
+                if(currentSecondPermits.compareAndSet(secondPermits, firstPermitOfSecond)) {
+                    return true;
+                }
+            } else if(acquiredPermits >= maxPerSecond) {
+                return false;
+            } else if(currentSecondPermits.compareAndSet(secondPermits, secondPermits + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of invocations suppressed since the last call, and resets it.
+     *
+     * @return number of suppressed invocations
+     */
+    long takeSuppressedCount() {
+        return suppressedInvocations.sumThenReset();
+    }
+}
@@ -0,0 +1,315 @@
+package com.wnowakcraft.logging;
+
+import com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver;
+import org.slf4j.Logger;
+
+/**
+ * Single log statement defined by either {@link LogBefore} or {@link LogAfter} annotation,
+ * with its message template already compiled. Its level and sampling can be overridden at runtime by {@link LogStatements}.
+ */
+class LogStatement extends AbstractLogStatement {
+    private static final String SUPPRESSED_COUNT_SUFFIX = " [{} similar message(s) suppressed]";
+    private static final String SUPPRESSED_COUNT_KEY = "suppressed";
+    private static final String REPETITIONS_SUFFIX = " (repeated {} times)";
+    private static final String REPETITIONS_KEY = "repeated";
+    private final boolean async;
+    private final ExpressionResolver.CompiledExpression condition;
+    private final TemplateCircuitBreaker conditionCircuitBreaker;
+    private final RuntimeException conditionCompilationError;
+    private final boolean conditionRefersToElapsedTime;
+    private final String suppressedCountPattern;
+    private final DuplicateMessageFilter duplicateFilter;
+    private final String repetitionsPattern;
+    private volatile CaptureFile.StatementDefinition captureDefinition;
+
+    private LogStatement(String id, String methodName, StatementSettings annotatedSettings, boolean async, LogOutput output,
+                         long dedupWindowMillis, ParamRenderer paramRenderer, String condition, String messageTemplate,
+                         LoggingStats stats) {
+        super(id, methodName, annotatedSettings, output, paramRenderer, messageTemplate, stats);
+        ExpressionResolver.CompiledExpression compiledCondition = null;
+        RuntimeException compilationError = null;
+
+        try {
+            compiledCondition = condition.isBlank() ? null : ExpressionResolver.compile(condition);
+        } catch (RuntimeException ex) {
+            compilationError = ex;
+        }
+
+        this.async = async;
+        this.condition = compiledCondition;
+        this.conditionCircuitBreaker = condition.isBlank() ? null : TemplateCircuitBreaker.of(condition);
+        this.conditionCompilationError = compilationError;
+        this.conditionRefersToElapsedTime = compiledCondition != null &&
+                ExpressionResolver.getReferredParams(condition).contains(ExpressionResolver.ELAPSED);
+        this.suppressedCountPattern = this.messageTemplate != null ?
+                this.messageTemplate.getCleanLogMessageTemplate() + SUPPRESSED_COUNT_SUFFIX : null;
+        this.duplicateFilter = DuplicateMessageFilter.of(dedupWindowMillis, this::logRepeated);
+        this.repetitionsPattern = this.messageTemplate != null ?
+                this.messageTemplate.getCleanLogMessageTemplate() + REPETITIONS_SUFFIX : null;
+    }
+
+    static LogStatement of(LogBefore logBefore, String methodName, int index, LoggingStats stats) {
+        var annotatedSettings = new StatementSettings(true, logBefore.level(),
+                LogSampler.of(logBefore.everyNth(), logBefore.sampleRate(), logBefore.maxPerSecond()));
+        return new LogStatement(ControlledStatement.idOf(methodName, LogBefore.class, index), methodName,
+                annotatedSettings, logBefore.async(), logBefore.output(), logBefore.dedupWindowMillis(),
+                ParamRenderer.of(logBefore.limits()), logBefore.when(), logBefore.value(), stats);
+    }
+
+    static LogStatement of(LogAfter logAfter, String methodName, int index, LoggingStats stats) {
+        var annotatedSettings = new StatementSettings(true, logAfter.level(),
+                LogSampler.of(logAfter.everyNth(), logAfter.sampleRate(), logAfter.maxPerSecond()));
+        return new LogStatement(ControlledStatement.idOf(methodName, LogAfter.class, index), methodName,
+                annotatedSettings, logAfter.async(), logAfter.output(), logAfter.dedupWindowMillis(),
+                ParamRenderer.of(logAfter.limits()), logAfter.when(), logAfter.value(), stats);
+    }
+
+    boolean hasCondition() {
+        return conditionCircuitBreaker != null;
+    }
+
+    /**
+     * Tells whether the condition of the statement is met by the current invocation. It must be checked
+     * after the level and before sampling, so invocations not meeting it don't count towards sampling.
+     * A failing condition, including one which doesn't compile, isn't met. It's counted as a failure and thrown,
+     * until its own {@link TemplateCircuitBreaker} degrades it; then the statement is skipped without evaluating
+     * the condition, until it's retried.
+     */
+    boolean isConditionMet(Object[] methodArgs, Object result, long elapsedNanos) {
+        if(!hasCondition()) {
+            return true;
+        }
+
+        if(!conditionCircuitBreaker.allowsEvaluation()) {
+            stats.recordSkippedByCondition();
+            return false;
+        }
+
+        var expressionResolver = ExpressionResolver.acquire(methodArgs, result, elapsedNanos);
+        try {
+            if(conditionCompilationError != null) {
+                throw conditionCompilationError;
+            }
+
+            var conditionMet = expressionResolver.test(condition);
+            conditionCircuitBreaker.recordSuccess();
+            if(conditionMet) {
+                return true;
+            }
+            stats.recordSkippedByCondition();
+        } catch (RuntimeException ex) {
+            stats.recordFailure();
+            if(conditionCircuitBreaker.recordFailure(ex)) {
+                throw ex;
+            }
+        } finally {
+            expressionResolver.release();
+        }
+
+        return false;
+    }
+
+    /**
+     * Tells whether the current invocation passes the sampling settings of the statement.
+     * It must be checked before any expression is evaluated.
+     */
+    boolean isSampledIn(StatementSettings settings) {
+        var sampler = settings.getSampler();
+        if(sampler == null || sampler.sample()) {
+            return true;
+        }
+
+        stats.recordSkippedBySampling();
+        return false;
+    }
+
+    boolean isAsync() {
+        return async;
+    }
+
+    boolean refersToElapsedTime() {
+        return conditionRefersToElapsedTime ||
+                (messageTemplate != null && messageTemplate.refersToParam(ExpressionResolver.ELAPSED));
+    }
+
+    private long takeSuppressedCount(StatementSettings settings) {
+        var sampler = settings.getSampler();
+        return sampler != null ? sampler.takeSuppressedCount() : 0;
+    }
+
+    /**
+     * Evaluates the template and logs the message. If the template keeps failing, the statement is degraded
+     * by its {@link TemplateCircuitBreaker}, and the failures are no longer thrown.
+     */
+    void log(Logger logger, StatementSettings settings, Object[] methodArgs, Object result, long elapsedNanos) {
+        var expressionResolver = ExpressionResolver.acquire(methodArgs, result, elapsedNanos);
+
+        try {
+            log(logger, settings, expressionResolver, null);
+        } finally {
+            expressionResolver.release();
+        }
+    }
+
+    @Override
+    void logDegraded(Logger logger, StatementSettings settings, Throwable exception) {
+        if(output.addsKeyValues()) {
+            logKeyValues(logger, settings.getLevel(), degradedParams, 0);
+            return;
+        }
+
+        settings.getLevel().log(logger, messageTemplate.getCleanLogMessageTemplate(), degradedParams);
+        stats.recordEmitted();
+    }
+
+    @Override
+    void logEvaluated(Logger logger, StatementSettings settings, ExpressionResolver expressionResolver, Throwable exception) {
+        var level = settings.getLevel();
+        if(output == LogOutput.CAPTURE && capture(level, expressionResolver)) {
+            return;
+        }
+
+        if(duplicateFilter != null) {
+            logUnlessDuplicate(logger, settings, resolveParams(expressionResolver));
+            return;
+        }
+
+        var cleanLogMessagePattern = messageTemplate.getCleanLogMessageTemplate();
+        var suppressedCount = takeSuppressedCount(settings);
+
+        if(output.addsKeyValues()) {
+            logKeyValues(logger, level, resolveParams(expressionResolver), suppressedCount);
+            return;
+        }
+
+        if(suppressedCount > 0) {
+            logWithSuppressedCount(logger, level, expressionResolver, suppressedCount);
+            return;
+        }
+
+        var paramsCount = messageTemplate.getParamsCount();
+        if(paramsCount == 0) {
+            level.log(logger, cleanLogMessagePattern);
+            stats.recordEmitted();
+            return;
+        }
+
+        var evaluationStartNanos = System.nanoTime();
+        Object firstParam = null;
+        Object secondParam = null;
+        Object[] params = null;
+
+        switch(paramsCount) {
+            case 1:
+                firstParam = paramRenderer.render(messageTemplate.getParamReferredInTemplate(0, expressionResolver));
+                break;
+            case 2:
+                firstParam = paramRenderer.render(messageTemplate.getParamReferredInTemplate(0, expressionResolver));
+                secondParam = paramRenderer.render(messageTemplate.getParamReferredInTemplate(1, expressionResolver));
+                break;
+            default:
+                params = messageTemplate.getParamsReferredInTemplate(expressionResolver);
+                paramRenderer.renderAll(params);
+        }
+        stats.recordEvaluation(System.nanoTime() - evaluationStartNanos);
+
+        switch(paramsCount) {
+            case 1:
+                level.log(logger, cleanLogMessagePattern, firstParam);
+                break;
+            case 2:
+                level.log(logger, cleanLogMessagePattern, firstParam, secondParam);
+                break;
+            default:
+                level.log(logger, cleanLogMessagePattern, params);
+        }
+        stats.recordEmitted();
+    }
+
+    /**
+     * Captures the resolved expressions into the current capture file, defining the statement in it at first.
+     *
+     * @return false if there's no capture file, or the statement can't be captured into it, so it should be logged
+     */
+    private boolean capture(Level level, ExpressionResolver expressionResolver) {
+        var captureFile = LogCapture.getFile();
+        if(captureFile == null) {
+            return false;
+        }
+
+        var definition = captureDefinition;
+        if(definition == null || !definition.isOf(captureFile)) {
+            definition = captureFile.define(getId(), messageTemplate.getCleanLogMessageTemplate(), messageTemplate.getParamsCount());
+            if(definition == null) {
+                return false;
+            }
+            captureDefinition = definition;
+        }
+
+        definition.capture(level, resolveParams(expressionResolver));
+        stats.recordEmitted();
+        return true;
+    }
+
+    /**
+     * Logs the message, unless it's identical to a message logged within the deduplication window,
+     * in which case it's only counted by the {@link DuplicateMessageFilter}.
+     */
+    private void logUnlessDuplicate(Logger logger, StatementSettings settings, Object[] params) {
+        if(!duplicateFilter.isFirstInWindow(logger, params)) {
+            stats.recordSkippedAsDuplicate();
+            return;
+        }
+
+        var level = settings.getLevel();
+        var suppressedCount = takeSuppressedCount(settings);
+
+        if(output.addsKeyValues()) {
+            logKeyValues(logger, level, params, suppressedCount);
+            return;
+        }
+
+        if(suppressedCount > 0) {
+            level.log(logger, suppressedCountPattern, appended(params, suppressedCount));
+        } else {
+            level.log(logger, messageTemplate.getCleanLogMessageTemplate(), params);
+        }
+        stats.recordEmitted();
+    }
+
+    private void logRepeated(Logger logger, Object[] params, long repetitions) {
+        var level = getSettings().getLevel();
+        if(output.addsKeyValues()) {
+            logKeyValues(atLevelWithKeyValues(logger, level, params).addKeyValue(REPETITIONS_KEY, repetitions),
+                    repetitionsPattern, appended(params, repetitions));
+            return;
+        }
+
+        level.log(logger, repetitionsPattern, appended(params, repetitions));
+        stats.recordEmitted();
+    }
+
+    private void logKeyValues(Logger logger, Level level, Object[] params, long suppressedCount) {
+        if(suppressedCount > 0) {
+            logKeyValues(atLevelWithKeyValues(logger, level, params).addKeyValue(SUPPRESSED_COUNT_KEY, suppressedCount),
+                    suppressedCountPattern, appended(params, suppressedCount));
+        } else {
+            logKeyValues(atLevelWithKeyValues(logger, level, params), messageTemplate.getCleanLogMessageTemplate(), params);
+        }
+    }
+
+    private void logWithSuppressedCount(Logger logger, Level level, ExpressionResolver expressionResolver, long suppressedCount) {
+        var paramsCount = messageTemplate.getParamsCount();
+        var logMessageParams = new Object[paramsCount + 1];
+
+        var evaluationStartNanos = System.nanoTime();
+        for(var i = 0; i < paramsCount; i++) {
+            logMessageParams[i] = paramRenderer.render(messageTemplate.getParamReferredInTemplate(i, expressionResolver));
+        }
+        stats.recordEvaluation(System.nanoTime() - evaluationStartNanos);
+        logMessageParams[paramsCount] = suppressedCount;
+
+        level.log(logger, suppressedCountPattern, logMessageParams);
+        stats.recordEmitted();
+    }
+}
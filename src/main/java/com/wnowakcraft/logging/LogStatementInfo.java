@@ -0,0 +1,34 @@
+package com.wnowakcraft.logging;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Description of a single log statement woven by the aspect, with its current settings.
+ *
+ * @see LogStatements
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class LogStatementInfo {
+    /** Identifier of the statement, e.g. <pre>com.acme.OrderService.find(String)@LogAfter[1]</pre> */
+    private final String id;
+    /** Name of the annotated method, e.g. <pre>com.acme.OrderService.find(String)</pre> */
+    private final String methodName;
+    /** Message template of the statement */
+    private final String template;
+    /** Level given by the annotation */
+    private final Level annotatedLevel;
+    /** Current level of the statement */
+    private final Level level;
+    /** Whether the statement is currently enabled */
+    private final boolean enabled;
+    /** Whether the annotated settings of the statement are currently overridden */
+    private final boolean overridden;
+
+    @Override
+    public String toString() {
+        return id + " \"" + template + "\" level=" + level + (enabled ? "" : ", disabled") + (overridden ? ", overridden" : "");
+    }
+}
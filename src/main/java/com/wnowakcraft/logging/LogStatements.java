@@ -0,0 +1,192 @@
+package com.wnowakcraft.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the log statements woven by the aspect, allowing to override their annotated settings at runtime:
+ * to disable a noisy statement, or to change its level or sampling, without redeploying.
+ * Statements are registered at the first invocation of their methods, and identified by the method, the annotation
+ * and the position among the annotations of the same type, e.g. <pre>com.acme.OrderService.find(String)@LogAfter[1]</pre>.
+ * <p>
+ * An override is given either for a statement identifier, or for a method name, applying to all the statements of
+ * the method; the statement identifier takes precedence. Overrides of statements not registered yet are applied
+ * at their registration.
+ * <p>
+ * The registry is also exposed as {@link LogStatementsMXBean} in the platform MBean server.
+ */
+public final class LogStatements {
+    /** Name of the MBean exposing the registry */
+    public static final String OBJECT_NAME = "com.wnowakcraft.logging:type=LogStatements";
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogStatements.class);
+    private static final Map<String, ControlledStatement> STATEMENTS = new ConcurrentHashMap<>();
+    private static final Map<String, StatementOverride> OVERRIDES = new ConcurrentHashMap<>();
+
+    static {
+        registerMBean();
+    }
+
+    private LogStatements() { }
+
+    /**
+     * Returns all the log statements registered so far.
+     *
+     * @return log statements with their current settings, sorted by identifier
+     */
+    public static List<LogStatementInfo> getStatements() {
+        var statements = new ArrayList<LogStatementInfo>();
+
+        for(var statement : STATEMENTS.values()) {
+            var settings = statement.getSettings();
+            statements.add(new LogStatementInfo(statement.getId(), statement.getMethodName(), statement.getTemplate(),
+                    statement.getAnnotatedSettings().getLevel(), settings.getLevel(), settings.isEnabled(),
+                    settings != statement.getAnnotatedSettings()));
+        }
+        statements.sort(Comparator.comparing(LogStatementInfo::getId));
+
+        return statements;
+    }
+
+    /**
+     * Returns the current overrides.
+     *
+     * @return overrides by statement identifier or method name
+     */
+    public static Map<String, StatementOverride> getOverrides() {
+        return Map.copyOf(OVERRIDES);
+    }
+
+    /**
+     * Overrides the annotated settings of log statements, replacing the previous override given for the same key.
+     *
+     * @param statementIdOrMethodName statement identifier, or method name for all the statements of the method
+     * @param override settings overriding the annotated ones
+     */
+    public static synchronized void override(String statementIdOrMethodName, StatementOverride override) {
+        OVERRIDES.put(statementIdOrMethodName, override);
+        applyOverrides(statementIdOrMethodName);
+    }
+
+    /**
+     * Restores the annotated settings of log statements, unless there's another override applying to them.
+     *
+     * @param statementIdOrMethodName statement identifier or method name
+     */
+    public static synchronized void clearOverride(String statementIdOrMethodName) {
+        OVERRIDES.remove(statementIdOrMethodName);
+        applyOverrides(statementIdOrMethodName);
+    }
+
+    /**
+     * Restores the annotated settings of all the log statements.
+     */
+    public static synchronized void clearOverrides() {
+        OVERRIDES.clear();
+        STATEMENTS.values().forEach(statement -> statement.setSettings(statement.getAnnotatedSettings()));
+    }
+
+    static synchronized void register(ControlledStatement statement) {
+        STATEMENTS.put(statement.getId(), statement);
+        applyOverride(statement);
+    }
+
+    private static void applyOverrides(String statementIdOrMethodName) {
+        for(var statement : STATEMENTS.values()) {
+            if(statement.getId().equals(statementIdOrMethodName) || statement.getMethodName().equals(statementIdOrMethodName)) {
+                applyOverride(statement);
+            }
+        }
+    }
+
+    private static void applyOverride(ControlledStatement statement) {
+        var override = OVERRIDES.get(statement.getId());
+        if(override == null) {
+            override = OVERRIDES.get(statement.getMethodName());
+        }
+
+        statement.setSettings(override != null ?
+                statement.getAnnotatedSettings().overriddenBy(override) : statement.getAnnotatedSettings());
+    }
+
+    private static void registerMBean() {
+        try {
+            var mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            var objectName = new ObjectName(OBJECT_NAME);
+
+            if(!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(new StatementsMXBean(), objectName);
+            }
+        } catch (Exception ex) {
+            LOGGER.warn("Couldn't register log statements MBean. Reason: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static class StatementsMXBean implements LogStatementsMXBean {
+        @Override
+        public List<LogStatementInfo> getStatements() {
+            return LogStatements.getStatements();
+        }
+
+        @Override
+        public List<String> getOverrides() {
+            var overrides = new ArrayList<String>();
+            OVERRIDES.forEach((key, override) -> overrides.add(key + ": enabled=" + override.isEnabled() +
+                    ", level=" + override.getLevel() + ", everyNth=" + override.getEveryNth() +
+                    ", sampleRate=" + override.getSampleRate() + ", maxPerSecond=" + override.getMaxPerSecond()));
+            overrides.sort(null);
+            return overrides;
+        }
+
+        @Override
+        public void enable(String statementIdOrMethodName) {
+            synchronized(LogStatements.class) {
+                override(statementIdOrMethodName, currentOverride(statementIdOrMethodName).enabled(true).build());
+            }
+        }
+
+        @Override
+        public void disable(String statementIdOrMethodName) {
+            synchronized(LogStatements.class) {
+                override(statementIdOrMethodName, currentOverride(statementIdOrMethodName).enabled(false).build());
+            }
+        }
+
+        @Override
+        public void setLevel(String statementIdOrMethodName, String level) {
+            var newLevel = Level.valueOf(level.trim().toUpperCase());
+            synchronized(LogStatements.class) {
+                override(statementIdOrMethodName, currentOverride(statementIdOrMethodName).level(newLevel).build());
+            }
+        }
+
+        @Override
+        public void setSampleRate(String statementIdOrMethodName, double sampleRate) {
+            synchronized(LogStatements.class) {
+                override(statementIdOrMethodName, currentOverride(statementIdOrMethodName).sampleRate(sampleRate).build());
+            }
+        }
+
+        @Override
+        public void clearOverride(String statementIdOrMethodName) {
+            LogStatements.clearOverride(statementIdOrMethodName);
+        }
+
+        @Override
+        public void clearOverrides() {
+            LogStatements.clearOverrides();
+        }
+
+        private static StatementOverride.StatementOverrideBuilder currentOverride(String statementIdOrMethodName) {
+            var override = OVERRIDES.get(statementIdOrMethodName);
+            return override != null ? override.toBuilder() : StatementOverride.builder();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.wnowakcraft.logging;
+
+import java.util.List;
+
+/**
+ * Management interface of {@link LogStatements}, registered in the platform MBean server as
+ * <pre>com.wnowakcraft.logging:type=LogStatements</pre>.
+ * Operations take either a statement identifier, e.g. <pre>com.acme.OrderService.find(String)@LogAfter[1]</pre>,
+ * or a method name, e.g. <pre>com.acme.OrderService.find(String)</pre>, applying to all the statements of the method.
+ * Every operation changes only its own setting of the current override.
+ */
+public interface LogStatementsMXBean {
+    /**
+     * @return all the log statements woven so far, with their current settings
+     */
+    List<LogStatementInfo> getStatements();
+
+    /**
+     * @return overrides by statement identifier or method name
+     */
+    List<String> getOverrides();
+
+    /**
+     * Enables log statements.
+     *
+     * @param statementIdOrMethodName statement identifier or method name
+     */
+    void enable(String statementIdOrMethodName);
+
+    /**
+     * Disables log statements.
+     *
+     * @param statementIdOrMethodName statement identifier or method name
+     */
+    void disable(String statementIdOrMethodName);
+
+    /**
+     * Changes the level of log statements.
+     *
+     * @param statementIdOrMethodName statement identifier or method name
+     * @param level name of the level, e.g. <pre>INFO</pre>
+     */
+    void setLevel(String statementIdOrMethodName, String level);
+
+    /**
+     * Changes the fraction of invocations logged by log statements.
+     *
+     * @param statementIdOrMethodName statement identifier or method name
+     * @param sampleRate fraction of invocations to be logged, between 0 and 1
+     */
+    void setSampleRate(String statementIdOrMethodName, double sampleRate);
+
+    /**
+     * Restores the annotated settings of log statements.
+     *
+     * @param statementIdOrMethodName statement identifier or method name
+     */
+    void clearOverride(String statementIdOrMethodName);
+
+    /**
+     * Restores the annotated settings of all the log statements.
+     */
+    void clearOverrides();
+}
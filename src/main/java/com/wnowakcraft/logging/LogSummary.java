@@ -0,0 +1,50 @@
+package com.wnowakcraft.logging;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation being used to log periodic summaries of invocations of the annotated method, instead of a line per call.
+ * Invocations are counted in striped counters, and once per interval a single summary line is logged to the logger
+ * of the method's class, e.g.
+ * <pre>Summary of com.acme.PaymentService.process(Payment) in last 60 s: 48211 calls, 3 failed, 12 with null result,
+ * top {p0.getType()}: CARD=40211, BLIK=7000, TRANSFER=1000</pre>
+ * Nothing is logged for an interval without invocations.
+ * It can be only put at method level.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface LogSummary {
+    /**
+     * Defines the interval of summaries. Intervals shorter than a second are raised to a second.
+     *
+     * @return the interval in seconds
+     * */
+    long intervalSeconds() default 60;
+
+    /**
+     * Defines a severity level of summaries.
+     *
+     * @return the severity level
+     * */
+    Level level() default Level.INFO;
+
+    /**
+     * Defines a single template expression invocations are grouped by, e.g. <pre>{p0.getType()}</pre>.
+     * Invocations are counted per distinct value of the expression, and the values counted most often
+     * are included in the summary. The return value <pre>{r}</pre> is null for invocations which threw.
+     * Empty means invocations are not grouped.
+     *
+     * @return the expression invocations are grouped by
+     * */
+    String groupBy() default "";
+
+    /**
+     * Defines how many of the values counted most often are included in the summary.
+     *
+     * @return the number of values of the grouping expression included in the summary
+     * */
+    int topGroups() default 5;
+}
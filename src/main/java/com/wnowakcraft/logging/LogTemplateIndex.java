@@ -0,0 +1,156 @@
+package com.wnowakcraft.logging;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Index of all log statement templates found in annotated methods at compile time.
+ * The index is generated by {@link LogTemplateProcessor}, and can be loaded at application startup
+ * to compile all the templates upfront, so that the first invocation of an annotated method doesn't need to.
+ */
+public final class LogTemplateIndex {
+    /** Location of the index resource generated by {@link LogTemplateProcessor} */
+    public static final String INDEX_LOCATION = "META-INF/annotated-logging/templates.index";
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogTemplateIndex.class);
+    private static final char FIELD_SEPARATOR = '\t';
+    private static final int FIELDS_COUNT = 6;
+
+    private LogTemplateIndex() { }
+
+    /**
+     * Compiles all the templates from all the indexes visible to the context class loader.
+     *
+     * @return the number of compiled templates
+     */
+    public static int preload() {
+        var classLoader = Thread.currentThread().getContextClassLoader();
+        return preload(classLoader != null ? classLoader : LogTemplateIndex.class.getClassLoader());
+    }
+
+    /**
+     * Compiles all the templates from all the indexes visible to the given class loader.
+     * Templates which can't be compiled are skipped.
+     *
+     * @param classLoader class loader used to find the indexes
+     * @return the number of compiled templates
+     */
+    public static int preload(ClassLoader classLoader) {
+        var compiledTemplates = 0;
+
+        for(var entry : load(classLoader)) {
+            try {
+                LogMessageParamsResolver.forMessageTemplate(entry.getTemplate());
+                compiledTemplates++;
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Couldn't compile template of {}.{}. Reason: {}",
+                        entry.getClassName(), entry.getMethodName(), ex.getMessage());
+            }
+        }
+
+        return compiledTemplates;
+    }
+
+    static List<Entry> load(ClassLoader classLoader) {
+        var entries = new ArrayList<Entry>();
+
+        try {
+            for(var indexUrl : Collections.list(classLoader.getResources(INDEX_LOCATION))) {
+                readIndex(indexUrl, entries);
+            }
+        } catch (IOException ex) {
+            LOGGER.warn("Couldn't load log template indexes. Reason: " + ex.getMessage(), ex);
+        }
+
+        return entries;
+    }
+
+    private static void readIndex(URL indexUrl, List<Entry> entries) throws IOException {
+        try(var reader = new BufferedReader(new InputStreamReader(indexUrl.openStream(), UTF_8))) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(line.isEmpty()) {
+                    continue;
+                }
+
+                try {
+                    entries.add(Entry.parse(line));
+                } catch (IllegalArgumentException ex) {
+                    LOGGER.warn("Skipping entry of log template index {}. Reason: {}", indexUrl, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    static void write(List<Entry> entries, Writer writer) throws IOException {
+        for(var entry : entries) {
+            writer.write(entry.format());
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Single indexed log statement.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    static class Entry {
+        static final String BEFORE = "BEFORE";
+        static final String AFTER = "AFTER";
+        static final String ERROR = "ERROR";
+
+        private final String className;
+        private final String methodName;
+        private final String parameterTypes;
+        private final String kind;
+        private final Level level;
+        private final String template;
+
+        String format() {
+            return String.join(String.valueOf(FIELD_SEPARATOR),
+                    className, methodName, parameterTypes, kind, level.name(), escape(template));
+        }
+
+        static Entry parse(String line) {
+            var fields = line.split(String.valueOf(FIELD_SEPARATOR), FIELDS_COUNT);
+
+            if(fields.length != FIELDS_COUNT) {
+                throw new IllegalArgumentException("Malformed log template index entry: " + line);
+            }
+
+            return new Entry(fields[0], fields[1], fields[2], fields[3], Level.valueOf(fields[4]), unescape(fields[5]));
+        }
+
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+        }
+
+        private static String unescape(String value) {
+            var unescaped = new StringBuilder(value.length());
+
+            for(var i = 0; i < value.length(); i++) {
+                var character = value.charAt(i);
+                if(character == '\\' && i + 1 < value.length()) {
+                    var escaped = value.charAt(++i);
+                    unescaped.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+                } else {
+                    unescaped.append(character);
+                }
+            }
+
+            return unescaped.toString();
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.wnowakcraft.logging;
+
+import com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionStage;
+
+import static com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver.ELAPSED;
+import static com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver.EXCEPTION;
+import static com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver.RESULT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Annotation processor validating templates of {@link LogBefore}, {@link LogAfter} and {@link LogOnError} annotations
+ * at compile time. Compilation fails when a template is not a valid expression, refers to a parameter the method
+ * doesn't have, or refers to the return value, elapsed time or exception where there's none.
+ * All valid templates are written to the {@link LogTemplateIndex}.
+ * <p>
+ * With <pre>-AannotatedLogging.aopXml=true</pre> compiler option, it also generates <pre>META-INF/aop.xml</pre>
+ * restricting AspectJ load-time weaving to the types having annotated methods, including {@link Timed} ones.
+ */
+@SupportedAnnotationTypes({
+        "com.wnowakcraft.logging.LogBefore",
+        "com.wnowakcraft.logging.LogBeforeEntries",
+        "com.wnowakcraft.logging.LogAfter",
+        "com.wnowakcraft.logging.LogAfterEntries",
+        "com.wnowakcraft.logging.LogOnError",
+        "com.wnowakcraft.logging.LogOnErrorEntries",
+        "com.wnowakcraft.logging.Timed",
+        "com.wnowakcraft.logging.LogSummary"
+})
+@SupportedOptions(LogTemplateProcessor.AOP_XML_OPTION)
+public class LogTemplateProcessor extends AbstractProcessor {
+    static final String AOP_XML_OPTION = "annotatedLogging.aopXml";
+    private final List<LogTemplateIndex.Entry> indexEntries = new ArrayList<>();
+    private final Set<String> annotatedTypes = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        var annotatedElements = roundEnv.getElementsAnnotatedWithAny(
+                Set.of(LogBefore.class, LogBeforeEntries.class, LogAfter.class, LogAfterEntries.class,
+                        LogOnError.class, LogOnErrorEntries.class, Timed.class, LogSummary.class));
+
+        for(Element annotatedElement : annotatedElements) {
+            var method = (ExecutableElement)annotatedElement;
+            annotatedTypes.add(getClassName(method));
+
+            for(LogBefore logBefore : method.getAnnotationsByType(LogBefore.class)) {
+                validateSampling(method, logBefore.everyNth(), logBefore.sampleRate(), logBefore.maxPerSecond());
+                validateDedupWindow(method, logBefore.dedupWindowMillis());
+                validateRenderLimits(method, logBefore.limits());
+                validateCondition(method, LogTemplateIndex.Entry.BEFORE, logBefore.when());
+                processTemplate(method, LogTemplateIndex.Entry.BEFORE, logBefore.level(), logBefore.value());
+            }
+
+            for(LogAfter logAfter : method.getAnnotationsByType(LogAfter.class)) {
+                validateSampling(method, logAfter.everyNth(), logAfter.sampleRate(), logAfter.maxPerSecond());
+                validateDedupWindow(method, logAfter.dedupWindowMillis());
+                validateRenderLimits(method, logAfter.limits());
+                validateCondition(method, LogTemplateIndex.Entry.AFTER, logAfter.when());
+                if(logAfter.onCompletion()) {
+                    validateReturningCompletionStage(method);
+                }
+                processTemplate(method, LogTemplateIndex.Entry.AFTER, logAfter.level(), logAfter.value());
+            }
+
+            for(LogOnError logOnError : method.getAnnotationsByType(LogOnError.class)) {
+                if(logOnError.stackTracesPerMinute() < 0) {
+                    error(method, "stackTracesPerMinute of log statement can't be negative, but was " + logOnError.stackTracesPerMinute());
+                }
+                validateRenderLimits(method, logOnError.limits());
+                if(logOnError.output() == LogOutput.CAPTURE) {
+                    error(method, "CAPTURE output is not supported by @LogOnError log statement");
+                }
+                processTemplate(method, LogTemplateIndex.Entry.ERROR, logOnError.level(), logOnError.value());
+            }
+
+            var logSummary = method.getAnnotation(LogSummary.class);
+            if(logSummary != null) {
+                validateSummary(method, logSummary);
+            }
+        }
+
+        if(roundEnv.processingOver()) {
+            writeIndex();
+            if(Boolean.parseBoolean(processingEnv.getOptions().get(AOP_XML_OPTION))) {
+                writeAopXml();
+            }
+        }
+
+        return false;
+    }
+
+    private void validateSampling(ExecutableElement method, int everyNth, double sampleRate, int maxPerSecond) {
+        if(everyNth < 1) {
+            error(method, "everyNth of log statement must be at least 1, but was " + everyNth);
+        }
+
+        if(sampleRate < 0.0 || sampleRate > 1.0) {
+            error(method, "sampleRate of log statement must be between 0 and 1, but was " + sampleRate);
+        }
+
+        if(maxPerSecond < 0) {
+            error(method, "maxPerSecond of log statement can't be negative, but was " + maxPerSecond);
+        }
+    }
+
+    private void validateDedupWindow(ExecutableElement method, long dedupWindowMillis) {
+        if(dedupWindowMillis < 0) {
+            error(method, "dedupWindowMillis of log statement can't be negative, but was " + dedupWindowMillis);
+        }
+    }
+
+    private void validateRenderLimits(ExecutableElement method, RenderLimits limits) {
+        validateRenderLimit(method, "maxLength", limits.maxLength());
+        validateRenderLimit(method, "maxElements", limits.maxElements());
+        validateRenderLimit(method, "maxDepth", limits.maxDepth());
+        validateRenderLimit(method, "hexBytes", limits.hexBytes());
+    }
+
+    private void validateRenderLimit(ExecutableElement method, String name, int limit) {
+        if(limit < RenderLimits.GLOBAL) {
+            error(method, name + " of log statement can't be negative, but was " + limit);
+        }
+    }
+
+    private void validateCondition(ExecutableElement method, String kind, String condition) {
+        if(condition.isBlank()) {
+            return;
+        }
+
+        try {
+            ExpressionResolver.compile(condition);
+        } catch (RuntimeException ex) {
+            error(method, "Invalid condition \"" + condition + "\" of log statement: " + ex.getMessage());
+            return;
+        }
+
+        for(var referredParam : ExpressionResolver.getReferredParams(condition)) {
+            if(RESULT.equals(referredParam)) {
+                isValidReturnValueReference(method, kind, condition);
+            } else if(ELAPSED.equals(referredParam)) {
+                isValidElapsedTimeReference(method, kind, condition);
+            } else if(EXCEPTION.equals(referredParam)) {
+                isValidExceptionReference(method, kind, condition);
+            } else {
+                isValidParamReference(method, referredParam, condition);
+            }
+        }
+    }
+
+    private void validateSummary(ExecutableElement method, LogSummary logSummary) {
+        if(logSummary.intervalSeconds() < 1) {
+            error(method, "intervalSeconds of log summary must be at least 1, but was " + logSummary.intervalSeconds());
+        }
+
+        if(logSummary.topGroups() < 0) {
+            error(method, "topGroups of log summary can't be negative, but was " + logSummary.topGroups());
+        }
+
+        var groupBy = logSummary.groupBy();
+        if(groupBy.isEmpty()) {
+            return;
+        }
+
+        LogMessageParamsResolver compiledGroupBy;
+        try {
+            compiledGroupBy = new LogMessageParamsResolver(groupBy);
+        } catch (RuntimeException ex) {
+            error(method, "Invalid expression in groupBy \"" + groupBy + "\" of log summary: " + ex.getMessage());
+            return;
+        }
+
+        if(compiledGroupBy.getParamsCount() != 1 || !compiledGroupBy.getCleanLogMessageTemplate().trim().equals("{}")) {
+            error(method, "groupBy \"" + groupBy + "\" of log summary must be a single expression, e.g. {p0.getType()}");
+            return;
+        }
+
+        for(var referredParam : compiledGroupBy.getReferredParams()) {
+            if(ELAPSED.equals(referredParam) || EXCEPTION.equals(referredParam)) {
+                error(method, "groupBy \"" + groupBy + "\" of log summary can refer to parameters and return value only");
+            } else if(RESULT.equals(referredParam)) {
+                isValidReturnValueReference(method, LogTemplateIndex.Entry.AFTER, groupBy);
+            } else {
+                isValidParamReference(method, referredParam, groupBy);
+            }
+        }
+    }
+
+    private void validateReturningCompletionStage(ExecutableElement method) {
+        var typeUtils = processingEnv.getTypeUtils();
+        var completionStage = processingEnv.getElementUtils().getTypeElement(CompletionStage.class.getName());
+
+        if(!typeUtils.isAssignable(typeUtils.erasure(method.getReturnType()), typeUtils.erasure(completionStage.asType()))) {
+            error(method, "onCompletion log statement requires method returning " + CompletionStage.class.getName() +
+                    ", but it returns " + method.getReturnType());
+        }
+    }
+
+    private void processTemplate(ExecutableElement method, String kind, Level level, String template) {
+        if(isValid(method, kind, template)) {
+            indexEntries.add(new LogTemplateIndex.Entry(
+                    getClassName(method), method.getSimpleName().toString(), getParameterTypes(method), kind, level, template
+            ));
+        }
+    }
+
+    private boolean isValid(ExecutableElement method, String kind, String template) {
+        LogMessageParamsResolver compiledTemplate;
+
+        try {
+            compiledTemplate = new LogMessageParamsResolver(template);
+        } catch (RuntimeException ex) {
+            error(method, "Invalid expression in log template \"" + template + "\": " + ex.getMessage());
+            return false;
+        }
+
+        var valid = true;
+        for(var referredParam : compiledTemplate.getReferredParams()) {
+            if(RESULT.equals(referredParam)) {
+                valid &= isValidReturnValueReference(method, kind, template);
+            } else if(ELAPSED.equals(referredParam)) {
+                valid &= isValidElapsedTimeReference(method, kind, template);
+            } else if(EXCEPTION.equals(referredParam)) {
+                valid &= isValidExceptionReference(method, kind, template);
+            } else {
+                valid &= isValidParamReference(method, referredParam, template);
+            }
+        }
+
+        return valid;
+    }
+
+    private boolean isValidReturnValueReference(ExecutableElement method, String kind, String template) {
+        if(LogTemplateIndex.Entry.BEFORE.equals(kind)) {
+            error(method, "Log template \"" + template + "\" refers to return value, which is not available before method execution");
+            return false;
+        }
+
+        if(LogTemplateIndex.Entry.ERROR.equals(kind)) {
+            error(method, "Log template \"" + template + "\" refers to return value, which is not available when method throws");
+            return false;
+        }
+
+        if(method.getReturnType().getKind() == TypeKind.VOID) {
+            error(method, "Log template \"" + template + "\" refers to return value of a method returning no result");
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean isValidElapsedTimeReference(ExecutableElement method, String kind, String template) {
+        if(LogTemplateIndex.Entry.BEFORE.equals(kind)) {
+            error(method, "Log template \"" + template + "\" refers to elapsed time, which is not available before method execution");
+            return false;
+        }
+
+        if(LogTemplateIndex.Entry.ERROR.equals(kind)) {
+            error(method, "Log template \"" + template + "\" refers to elapsed time, which is not available when method throws");
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean isValidExceptionReference(ExecutableElement method, String kind, String template) {
+        if(!LogTemplateIndex.Entry.ERROR.equals(kind)) {
+            error(method, "Log template \"" + template + "\" refers to exception, which is available in @LogOnError templates only");
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean isValidParamReference(ExecutableElement method, String referredParam, String template) {
+        var paramIndex = ExpressionResolver.getParamIndex(referredParam);
+        var paramsCount = method.getParameters().size();
+
+        if(paramIndex == ExpressionResolver.NOT_A_PARAM || paramIndex >= paramsCount) {
+            error(method, "Log template \"" + template + "\" refers to parameter " + referredParam +
+                    ", but the method has " + paramsCount + " parameter(s)");
+            return false;
+        }
+
+        return true;
+    }
+
+    private String getClassName(ExecutableElement method) {
+        var declaringType = (TypeElement)method.getEnclosingElement();
+        return processingEnv.getElementUtils().getBinaryName(declaringType).toString();
+    }
+
+    private String getParameterTypes(ExecutableElement method) {
+        var typeUtils = processingEnv.getTypeUtils();
+        return method.getParameters().stream()
+                .map(parameter -> typeUtils.erasure(parameter.asType()).toString())
+                .collect(joining(","));
+    }
+
+    private void writeIndex() {
+        if(indexEntries.isEmpty()) {
+            return;
+        }
+
+        try {
+            var indexFile = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", LogTemplateIndex.INDEX_LOCATION);
+
+            try(var writer = new OutputStreamWriter(indexFile.openOutputStream(), UTF_8)) {
+                LogTemplateIndex.write(indexEntries, writer);
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Couldn't write log template index. Reason: " + ex.getMessage());
+        }
+    }
+
+    private void writeAopXml() {
+        if(annotatedTypes.isEmpty()) {
+            return;
+        }
+
+        try {
+            var aopXmlFile = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", AopXml.LOCATION);
+
+            try(var writer = new OutputStreamWriter(aopXmlFile.openOutputStream(), UTF_8)) {
+                writer.write(AopXml.of(annotatedTypes));
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Couldn't write aop.xml. Reason: " + ex.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
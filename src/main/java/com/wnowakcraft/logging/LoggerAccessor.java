@@ -0,0 +1,133 @@
+package com.wnowakcraft.logging;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isFinal;
+import static java.lang.reflect.Modifier.isStatic;
+
+/**
+ * Gives access to the logger defined by a class in its <pre>log</pre> field.
+ * The field is looked up only once per class (including its superclasses), and then it's read either
+ * by a method handle or, for static final loggers, the logger instance is cached itself.
+ */
+abstract class LoggerAccessor {
+    private static final String LOG_FIELD_NAME = "log";
+    private static final ClassValue<LoggerAccessor> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected LoggerAccessor computeValue(Class<?> type) {
+            return forClass(type);
+        }
+    };
+
+    static LoggerAccessor of(Class<?> type) {
+        return ACCESSORS.get(type);
+    }
+
+    /**
+     * Returns the logger for the given target.
+     *
+     * @param target object the logger is read from, or null when logging from a static context
+     * @return the logger
+     */
+    abstract Logger getLogger(Object target);
+
+    private static LoggerAccessor forClass(Class<?> type) {
+        var logField = findLogField(type);
+
+        if(logField == null) {
+            return new MissingLogger("No '" + LOG_FIELD_NAME + "' field of " + Logger.class.getName() +
+                    " type found in " + type.getName() + " or its superclasses");
+        }
+
+        try {
+            logField.setAccessible(true);
+            var getter = MethodHandles.lookup().unreflectGetter(logField);
+
+            if(isStatic(logField.getModifiers())) {
+                if(isFinal(logField.getModifiers())) {
+                    var logger = (Logger)logField.get(null);
+                    if(logger != null) {
+                        return new StaticFinalLogger(logger);
+                    }
+                }
+
+                return new StaticLogger(getter.asType(methodType(Logger.class)));
+            }
+
+            return new InstanceLogger(getter.asType(methodType(Logger.class, Object.class)), logField);
+        } catch (RuntimeException | IllegalAccessException ex) {
+            return new MissingLogger("Couldn't access " + logField + ". Reason: " + ex.getMessage());
+        }
+    }
+
+    private static Field findLogField(Class<?> type) {
+        for(var declaringType = type; declaringType != null; declaringType = declaringType.getSuperclass()) {
+            for(var field : declaringType.getDeclaredFields()) {
+                if(LOG_FIELD_NAME.equals(field.getName()) && Logger.class.isAssignableFrom(field.getType())) {
+                    return field;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @RequiredArgsConstructor
+    private static class StaticFinalLogger extends LoggerAccessor {
+        private final Logger logger;
+
+        @Override
+        Logger getLogger(Object target) {
+            return logger;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class StaticLogger extends LoggerAccessor {
+        private final MethodHandle getter;
+
+        @Override
+        Logger getLogger(Object target) {
+            try {
+                return (Logger)getter.invokeExact();
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Couldn't read static logger field. Reason: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class InstanceLogger extends LoggerAccessor {
+        private final MethodHandle getter;
+        private final Field logField;
+
+        @Override
+        Logger getLogger(Object target) {
+            if(target == null) {
+                throw new IllegalStateException("Instance logger field " + logField + " can't be used in static context");
+            }
+
+            try {
+                return (Logger)getter.invokeExact(target);
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Couldn't read " + logField + ". Reason: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class MissingLogger extends LoggerAccessor {
+        private final String reason;
+
+        @Override
+        Logger getLogger(Object target) {
+            throw new IllegalStateException(reason);
+        }
+    }
+}
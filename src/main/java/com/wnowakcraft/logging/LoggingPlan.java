@@ -0,0 +1,161 @@
+package com.wnowakcraft.logging;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Immutable logging plan of a single annotated method.
+ * It's built once per woven method, at its first execution, and holds everything which is needed to log
+ * on every later invocation: the logger accessor and all the log statements in their declaration order.
+ */
+class LoggingPlan {
+    private final String methodName;
+    private final Class<?> declaringType;
+    private final LoggerAccessor loggerAccessor;
+    private final LogStatement[] beforeStatements;
+    private final LogStatement[] afterStatements;
+    private final LogStatement[] completionStatements;
+    private final ErrorLogStatement[] errorStatements;
+    private final TimedMethod timedMethod;
+    private final MethodSummary summary;
+    private final boolean measuringTime;
+    private final LoggingStats stats;
+    private final boolean invocationCountedBefore;
+
+    private LoggingPlan(String methodName, Class<?> declaringType, LogStatement[] beforeStatements,
+                        LogStatement[] afterStatements, LogStatement[] completionStatements,
+                        ErrorLogStatement[] errorStatements, TimedMethod timedMethod, MethodSummary summary,
+                        LoggingStats stats) {
+        this.methodName = methodName;
+        this.declaringType = declaringType;
+        this.loggerAccessor = LoggerAccessor.of(declaringType);
+        this.beforeStatements = beforeStatements;
+        this.afterStatements = afterStatements;
+        this.completionStatements = completionStatements;
+        this.errorStatements = errorStatements;
+        this.timedMethod = timedMethod;
+        this.summary = summary;
+        this.measuringTime = timedMethod != null ||
+                Arrays.stream(afterStatements).anyMatch(LogStatement::refersToElapsedTime) ||
+                Arrays.stream(completionStatements).anyMatch(LogStatement::refersToElapsedTime);
+        this.stats = stats;
+        this.invocationCountedBefore = afterStatements.length == 0 && completionStatements.length == 0 &&
+                timedMethod == null && summary == null;
+    }
+
+    static LoggingPlan forJoinPoint(JoinPoint.StaticPart joinPoint) {
+        var signature = (MethodSignature)joinPoint.getSignature();
+        var method = signature.getMethod();
+        var methodName = getMethodName(signature.getDeclaringType(), method);
+        var stats = LoggingStatistics.register(methodName);
+
+        var logBefores = method.getAnnotationsByType(LogBefore.class);
+        var beforeStatements = IntStream.range(0, logBefores.length)
+                .mapToObj(i -> LogStatement.of(logBefores[i], methodName, i, stats))
+                .toArray(LogStatement[]::new);
+        var logAfters = method.getAnnotationsByType(LogAfter.class);
+        var afterStatements = IntStream.range(0, logAfters.length)
+                .filter(i -> !logAfters[i].onCompletion())
+                .mapToObj(i -> LogStatement.of(logAfters[i], methodName, i, stats))
+                .toArray(LogStatement[]::new);
+        var completionStatements = IntStream.range(0, logAfters.length)
+                .filter(i -> logAfters[i].onCompletion())
+                .mapToObj(i -> LogStatement.of(logAfters[i], methodName, i, stats))
+                .toArray(LogStatement[]::new);
+        var logOnErrors = method.getAnnotationsByType(LogOnError.class);
+        var errorStatements = IntStream.range(0, logOnErrors.length)
+                .mapToObj(i -> ErrorLogStatement.of(logOnErrors[i], methodName, i, stats))
+                .toArray(ErrorLogStatement[]::new);
+        Stream.of(beforeStatements, afterStatements, completionStatements, errorStatements)
+                .flatMap(Arrays::stream)
+                .forEach(LogStatements::register);
+        var timed = method.getAnnotation(Timed.class);
+        var timedMethod = timed != null ? MethodLatencies.register(methodName, timed.level()) : null;
+        var logSummary = method.getAnnotation(LogSummary.class);
+        var summary = logSummary != null ? MethodSummary.of(methodName, logSummary, method.getReturnType() != void.class) : null;
+
+        return new LoggingPlan(methodName, signature.getDeclaringType(), beforeStatements, afterStatements,
+                completionStatements, errorStatements, timedMethod, summary, stats);
+    }
+
+    private static String getMethodName(Class<?> declaringType, Method method) {
+        return declaringType.getName() + "." + method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(joining(",", "(", ")"));
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    Logger getLogger(Object target) {
+        if(target == null || target.getClass() == declaringType) {
+            return loggerAccessor.getLogger(target);
+        }
+
+        return LoggerAccessor.of(target.getClass()).getLogger(target);
+    }
+
+    LogStatement[] getBeforeStatements() {
+        return beforeStatements;
+    }
+
+    LogStatement[] getAfterStatements() {
+        return afterStatements;
+    }
+
+    /**
+     * Returns the after statements which are logged on completion of the stage returned by the method.
+     */
+    LogStatement[] getCompletionStatements() {
+        return completionStatements;
+    }
+
+    ErrorLogStatement[] getErrorStatements() {
+        return errorStatements;
+    }
+
+    /**
+     * Tells whether the execution time of the method needs to be measured, either because it's {@link Timed},
+     * or because any of its after statements refers to the elapsed time.
+     */
+    boolean isMeasuringTime() {
+        return measuringTime;
+    }
+
+    TimedMethod getTimedMethod() {
+        return timedMethod;
+    }
+
+    MethodSummary getSummary() {
+        return summary;
+    }
+
+    LoggingStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Tells whether the invocations of the method are counted by the advice logging before its execution,
+     * because there's no advice around it.
+     */
+    boolean isInvocationCountedBefore() {
+        return invocationCountedBefore;
+    }
+
+    /**
+     * Tells whether the invocations of the method are counted by the advice logging on errors,
+     * because there's no other advice counting them.
+     */
+    boolean isInvocationCountedOnError() {
+        return invocationCountedBefore && beforeStatements.length == 0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.wnowakcraft.logging;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single daemon thread running the periodic tasks of the library, e.g. latency reports.
+ * The thread is started on first use.
+ */
+class LoggingScheduler {
+    private static volatile ScheduledExecutorService executor;
+
+    private LoggingScheduler() { }
+
+    static ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Duration interval) {
+        return executor().scheduleAtFixedRate(task, interval.toNanos(), interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static ScheduledExecutorService executor() {
+        var currentExecutor = executor;
+
+        if(currentExecutor == null) {
+            synchronized(LoggingScheduler.class) {
+                if(executor == null) {
+                    executor = Executors.newSingleThreadScheduledExecutor(task -> {
+                        var thread = new Thread(task, "annotated-logging-scheduler");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                currentExecutor = executor;
+            }
+        }
+
+        return currentExecutor;
+    }
+}
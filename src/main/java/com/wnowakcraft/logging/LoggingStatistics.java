@@ -0,0 +1,128 @@
+package com.wnowakcraft.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives access to statistics of the work done by the aspect itself, by annotated method and in total:
+ * intercepted invocations, emitted and skipped log statements, time spent evaluating expressions, and failures.
+ * Methods are identified by their declaring class and signature, e.g. <pre>com.acme.OrderService.find(String)</pre>,
+ * and appear here after their first invocation.
+ * <p>
+ * The statistics are also exposed as {@link LoggingStatisticsMXBean} in the platform MBean server.
+ */
+public final class LoggingStatistics {
+    /** Name of the MBean exposing the statistics */
+    public static final String OBJECT_NAME = "com.wnowakcraft.logging:type=LoggingStatistics";
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoggingStatistics.class);
+    private static final Map<String, LoggingStats> METHOD_STATS = new ConcurrentHashMap<>();
+
+    static {
+        registerMBean();
+    }
+
+    private LoggingStatistics() { }
+
+    /**
+     * Returns the work done by the aspect in total.
+     *
+     * @return total statistics
+     */
+    public static LoggingStatsSnapshot getTotal() {
+        var total = new LoggingStatsSnapshot(0, 0, 0, 0, 0, 0, 0, 0);
+        for(var methodStats : METHOD_STATS.values()) {
+            total = total.plus(methodStats.snapshot());
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns the work done by the aspect by annotated method.
+     *
+     * @return statistics by method name, sorted by method name
+     */
+    public static Map<String, LoggingStatsSnapshot> getSnapshots() {
+        var snapshots = new TreeMap<String, LoggingStatsSnapshot>();
+        METHOD_STATS.forEach((methodName, methodStats) -> snapshots.put(methodName, methodStats.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * Returns the number of log templates served from the cache of compiled templates.
+     * The cache is shared by all the methods, so its statistics are global only.
+     *
+     * @return number of template cache hits
+     */
+    public static long getTemplateCacheHits() {
+        return LogMessageParamsResolver.getCacheHits();
+    }
+
+    /**
+     * Returns the number of log templates which had to be compiled.
+     * The cache is shared by all the methods, so its statistics are global only.
+     *
+     * @return number of template cache misses
+     */
+    public static long getTemplateCacheMisses() {
+        return LogMessageParamsResolver.getCacheMisses();
+    }
+
+    /**
+     * Clears statistics of all the methods, together with the template cache statistics.
+     */
+    public static void reset() {
+        METHOD_STATS.values().forEach(LoggingStats::reset);
+        LogMessageParamsResolver.resetCacheStatistics();
+    }
+
+    static LoggingStats register(String methodName) {
+        return METHOD_STATS.computeIfAbsent(methodName, name -> new LoggingStats());
+    }
+
+    private static void registerMBean() {
+        try {
+            var mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            var objectName = new ObjectName(OBJECT_NAME);
+
+            if(!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(new StatisticsMXBean(), objectName);
+            }
+        } catch (Exception ex) {
+            LOGGER.warn("Couldn't register logging statistics MBean. Reason: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static class StatisticsMXBean implements LoggingStatisticsMXBean {
+        @Override
+        public LoggingStatsSnapshot getTotal() {
+            return LoggingStatistics.getTotal();
+        }
+
+        @Override
+        public Map<String, LoggingStatsSnapshot> getMethods() {
+            return LoggingStatistics.getSnapshots();
+        }
+
+        @Override
+        public long getTemplateCacheHits() {
+            return LoggingStatistics.getTemplateCacheHits();
+        }
+
+        @Override
+        public long getTemplateCacheMisses() {
+            return LoggingStatistics.getTemplateCacheMisses();
+        }
+
+        @Override
+        public void reset() {
+            LoggingStatistics.reset();
+        }
+    }
+}
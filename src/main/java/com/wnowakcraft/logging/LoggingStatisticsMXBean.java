@@ -0,0 +1,34 @@
+package com.wnowakcraft.logging;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link LoggingStatistics}, registered in the platform MBean server as
+ * <pre>com.wnowakcraft.logging:type=LoggingStatistics</pre>.
+ */
+public interface LoggingStatisticsMXBean {
+    /**
+     * @return the work done by the aspect in total
+     */
+    LoggingStatsSnapshot getTotal();
+
+    /**
+     * @return the work done by the aspect by annotated method
+     */
+    Map<String, LoggingStatsSnapshot> getMethods();
+
+    /**
+     * @return number of log templates served from the cache of compiled templates, by all the methods
+     */
+    long getTemplateCacheHits();
+
+    /**
+     * @return number of log templates which had to be compiled, by all the methods
+     */
+    long getTemplateCacheMisses();
+
+    /**
+     * Clears all the statistics, of all the methods and of the template cache.
+     */
+    void reset();
+}
@@ -0,0 +1,66 @@
+package com.wnowakcraft.logging;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the work done by the aspect for a single annotated method.
+ * They are striped {@link LongAdder}s, so counting doesn't become a contention point of frequently called methods.
+ */
+class LoggingStats {
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder emittedStatements = new LongAdder();
+    private final LongAdder skippedByLevel = new LongAdder();
+    private final LongAdder skippedBySampling = new LongAdder();
+    private final LongAdder skippedAsDuplicates = new LongAdder();
+    private final LongAdder skippedByCondition = new LongAdder();
+    private final LongAdder evaluationNanos = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    void recordInvocation() {
+        invocations.increment();
+    }
+
+    void recordEmitted() {
+        emittedStatements.increment();
+    }
+
+    void recordSkippedByLevel() {
+        skippedByLevel.increment();
+    }
+
+    void recordSkippedBySampling() {
+        skippedBySampling.increment();
+    }
+
+    void recordSkippedAsDuplicate() {
+        skippedAsDuplicates.increment();
+    }
+
+    void recordSkippedByCondition() {
+        skippedByCondition.increment();
+    }
+
+    void recordEvaluation(long nanos) {
+        evaluationNanos.add(nanos);
+    }
+
+    void recordFailure() {
+        failures.increment();
+    }
+
+    LoggingStatsSnapshot snapshot() {
+        return new LoggingStatsSnapshot(invocations.sum(), emittedStatements.sum(), skippedByLevel.sum(),
+                skippedBySampling.sum(), skippedAsDuplicates.sum(), skippedByCondition.sum(), evaluationNanos.sum(), failures.sum());
+    }
+
+    void reset() {
+        invocations.reset();
+        emittedStatements.reset();
+        skippedByLevel.reset();
+        skippedBySampling.reset();
+        skippedAsDuplicates.reset();
+        skippedByCondition.reset();
+        evaluationNanos.reset();
+        failures.reset();
+    }
+}
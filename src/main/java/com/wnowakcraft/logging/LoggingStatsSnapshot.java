@@ -0,0 +1,41 @@
+package com.wnowakcraft.logging;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Snapshot of the work done by the aspect, either for a single annotated method or in total.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class LoggingStatsSnapshot {
+    /** Number of invocations intercepted by the aspect; for methods having only {@link LogOnError}, only failed ones */
+    private final long invocations;
+    /** Number of log statements which were logged */
+    private final long emittedStatements;
+    /** Number of log statements skipped, because their level was disabled */
+    private final long skippedByLevel;
+    /** Number of log statements skipped by their sampling settings */
+    private final long skippedBySampling;
+    /** Number of log statements skipped as duplicates of a message logged within their deduplication window */
+    private final long skippedAsDuplicates;
+    /** Number of log statements skipped, because their condition was not met */
+    private final long skippedByCondition;
+    /** Time spent evaluating expressions of log templates, in nanoseconds */
+    private final long evaluationNanos;
+    /** Number of log statements which failed, e.g. because of an expression throwing an exception */
+    private final long failures;
+
+    LoggingStatsSnapshot plus(LoggingStatsSnapshot other) {
+        return new LoggingStatsSnapshot(invocations + other.invocations, emittedStatements + other.emittedStatements,
+                skippedByLevel + other.skippedByLevel, skippedBySampling + other.skippedBySampling,
+                skippedAsDuplicates + other.skippedAsDuplicates, skippedByCondition + other.skippedByCondition, evaluationNanos + other.evaluationNanos, failures + other.failures);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("invocations=%d, emitted=%d, skippedByLevel=%d, skippedBySampling=%d, skippedAsDuplicates=%d, skippedByCondition=%d, evaluation=%.3fms, failures=%d",
+                invocations, emittedStatements, skippedByLevel, skippedBySampling, skippedAsDuplicates, skippedByCondition, evaluationNanos / 1_000_000.0, failures);
+    }
+}
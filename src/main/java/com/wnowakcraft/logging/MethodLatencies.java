@@ -0,0 +1,78 @@
+package com.wnowakcraft.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Gives access to latencies of methods annotated with {@link Timed}.
+ * Methods are identified by their declaring class and signature, e.g. <pre>com.acme.OrderService.find(String)</pre>,
+ * and appear here after their first invocation.
+ */
+public final class MethodLatencies {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodLatencies.class);
+    private static final Map<String, TimedMethod> TIMED_METHODS = new ConcurrentHashMap<>();
+    private static ScheduledFuture<?> reportingTask;
+
+    private MethodLatencies() { }
+
+    /**
+     * Returns snapshots of latencies of all the timed methods.
+     *
+     * @return latency snapshots by method name, sorted by method name
+     */
+    public static Map<String, LatencySnapshot> getSnapshots() {
+        var snapshots = new TreeMap<String, LatencySnapshot>();
+        TIMED_METHODS.forEach((methodName, timedMethod) -> snapshots.put(methodName, timedMethod.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * Clears latencies of all the timed methods.
+     */
+    public static void reset() {
+        TIMED_METHODS.values().forEach(TimedMethod::reset);
+    }
+
+    /**
+     * Starts reporting latencies of all the timed methods to their class loggers, at the level
+     * defined by {@link Timed#level()}. Each report covers invocations since the previous one,
+     * and a method is reported only if it was invoked in that interval.
+     * Calling it again replaces the previous reporting interval.
+     *
+     * @param interval reporting interval
+     */
+    public static synchronized void reportEvery(Duration interval) {
+        stopReporting();
+        reportingTask = LoggingScheduler.scheduleAtFixedRate(MethodLatencies::report, interval);
+    }
+
+    /**
+     * Stops periodic latency reports.
+     */
+    public static synchronized void stopReporting() {
+        if(reportingTask != null) {
+            reportingTask.cancel(false);
+            reportingTask = null;
+        }
+    }
+
+    static TimedMethod register(String methodName, Level level) {
+        return TIMED_METHODS.computeIfAbsent(methodName, name -> new TimedMethod(name, level));
+    }
+
+    private static void report() {
+        for(var timedMethod : TIMED_METHODS.values()) {
+            try {
+                timedMethod.report();
+            } catch (Exception ex) {
+                LOGGER.warn("Couldn't report latency of " + timedMethod.getMethodName() + ". Reason: " + ex.getMessage(), ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.wnowakcraft.logging;
+
+import com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation counts of a single method annotated with {@link LogSummary}, logged as a single summary line
+ * once per interval by the {@link LoggingScheduler} thread.
+ * Counters are striped, so invocations recorded concurrently don't contend with each other. Grouped counts are
+ * kept in a bounded map; once it's full, invocations of new values are counted as other values. A group idle
+ * for a whole interval is closed and no longer tracked, so its calls recorded concurrently are retried in a new group.
+ * <p>
+ * Like log statements, a summary never makes the method fail: a grouping expression which doesn't compile
+ * is warned about once, and all the invocations are grouped as unavailable.
+ */
+class MethodSummary {
+    static final int MAX_TRACKED_GROUPS = 1024;
+    static final long MIN_INTERVAL_SECONDS = 1;
+    static final long MAX_INTERVAL_SECONDS = Integer.MAX_VALUE;
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodSummary.class);
+    private static final String UNAVAILABLE_GROUP = "<unavailable>";
+    private static final long CLOSED = -1;
+
+    private final String methodName;
+    private final long intervalSeconds;
+    private final Level level;
+    private final boolean returningResult;
+    private final boolean grouped;
+    private final LogMessageParamsResolver groupBy;
+    private final int topGroups;
+    private final String summaryPattern;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder nullResults = new LongAdder();
+    private final LongAdder otherGroupsCalls = new LongAdder();
+    private final Map<String, GroupCounter> groups = new ConcurrentHashMap<>();
+    private volatile Logger logger;
+
+    MethodSummary(String methodName, LogSummary logSummary, boolean returningResult) {
+        this.methodName = methodName;
+        this.intervalSeconds = Math.min(Math.max(logSummary.intervalSeconds(), MIN_INTERVAL_SECONDS), MAX_INTERVAL_SECONDS);
+        this.level = logSummary.level();
+        this.returningResult = returningResult;
+        this.grouped = !logSummary.groupBy().isEmpty();
+        this.groupBy = grouped ? compileGroupBy(methodName, logSummary.groupBy()) : null;
+        this.topGroups = logSummary.topGroups();
+        this.summaryPattern = "Summary of {} in last " + intervalSeconds + " s: {} calls, {} failed" +
+                (returningResult ? ", {} with null result" : "") +
+                (grouped ? ", top " + logSummary.groupBy().trim() + ": {}" : "");
+    }
+
+    private static LogMessageParamsResolver compileGroupBy(String methodName, String groupBy) {
+        try {
+            return LogMessageParamsResolver.forMessageTemplate(groupBy);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Couldn't compile groupBy expression of summary of " + methodName +
+                    ", its invocations are grouped as " + UNAVAILABLE_GROUP + ". Reason: " + ex.getMessage(), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Creates the summary of the method, logged periodically from now on.
+     */
+    static MethodSummary of(String methodName, LogSummary logSummary, boolean returningResult) {
+        var summary = new MethodSummary(methodName, logSummary, returningResult);
+        LoggingScheduler.scheduleAtFixedRate(summary::logSummary, Duration.ofSeconds(summary.intervalSeconds));
+        return summary;
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    boolean hasLogger() {
+        return logger != null;
+    }
+
+    void setLogger(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Records a single invocation of the method.
+     *
+     * @param methodArgs arguments of the invocation
+     * @param result result of the invocation, or null if it threw
+     * @param failed true if the invocation threw
+     */
+    void record(Object[] methodArgs, Object result, boolean failed) {
+        calls.increment();
+
+        if(failed) {
+            failures.increment();
+        } else if(returningResult && result == null) {
+            nullResults.increment();
+        }
+
+        if(grouped) {
+            recordGroup(methodArgs, result);
+        }
+    }
+
+    private void recordGroup(Object[] methodArgs, Object result) {
+        var group = groupBy != null ? evaluateGroup(methodArgs, result) : UNAVAILABLE_GROUP;
+
+        while(true) {
+            var groupCalls = groups.get(group);
+            if(groupCalls == null) {
+                if(groups.size() >= MAX_TRACKED_GROUPS) {
+                    otherGroupsCalls.increment();
+                    return;
+                }
+                groupCalls = groups.computeIfAbsent(group, key -> new GroupCounter());
+            }
+
+            if(groupCalls.increment()) {
+                return;
+            }
+            groups.remove(group, groupCalls);
+        }
+    }
+
+    private String evaluateGroup(Object[] methodArgs, Object result) {
+        var expressionResolver = ExpressionResolver.acquire(methodArgs, result);
+        try {
+            return String.valueOf(groupBy.getParamReferredInTemplate(0, expressionResolver));
+        } catch (RuntimeException ex) {
+            return UNAVAILABLE_GROUP;
+        } finally {
+            expressionResolver.release();
+        }
+    }
+
+    /**
+     * Logs the counts of the interval and resets them, unless there were no invocations.
+     * Groups without invocations in the interval are no longer tracked.
+     */
+    void logSummary() {
+        try {
+            var summary = takeSummary();
+            var currentLogger = logger;
+            if(summary != null && currentLogger != null && level.isEnabled(currentLogger)) {
+                level.log(currentLogger, summaryPattern, summary);
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Couldn't log summary of " + methodName + ". Reason: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Takes the counts of the interval, resetting them.
+     *
+     * @return params of the summary pattern, or null if there were no invocations
+     */
+    Object[] takeSummary() {
+        var callsCount = calls.sumThenReset();
+        var failuresCount = failures.sumThenReset();
+        var nullResultsCount = nullResults.sumThenReset();
+
+        if(callsCount == 0) {
+            return null;
+        }
+
+        var summary = new ArrayList<>(5);
+        summary.add(methodName);
+        summary.add(callsCount);
+        summary.add(failuresCount);
+        if(returningResult) {
+            summary.add(nullResultsCount);
+        }
+        if(grouped) {
+            summary.add(takeTopGroups());
+        }
+
+        return summary.toArray();
+    }
+
+    private String takeTopGroups() {
+        var groupCounts = new ArrayList<Map.Entry<String, Long>>();
+
+        for(var group : groups.entrySet()) {
+            var count = group.getValue().takeOrCloseIfIdle();
+            if(count > 0) {
+                groupCounts.add(Map.entry(group.getKey(), count));
+            } else {
+                groups.remove(group.getKey(), group.getValue());
+            }
+        }
+        groupCounts.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        var topGroupsSummary = new StringBuilder();
+        var summarizedGroups = Math.min(topGroups, groupCounts.size());
+        for(var i = 0; i < summarizedGroups; i++) {
+            if(i > 0) {
+                topGroupsSummary.append(", ");
+            }
+            topGroupsSummary.append(groupCounts.get(i).getKey()).append('=').append(groupCounts.get(i).getValue());
+        }
+
+        var otherGroups = groupCounts.size() - summarizedGroups;
+        var otherCalls = otherGroupsCalls.sumThenReset();
+        if(otherGroups > 0 || otherCalls > 0) {
+            for(var i = summarizedGroups; i < groupCounts.size(); i++) {
+                otherCalls += groupCounts.get(i).getValue();
+            }
+            topGroupsSummary.append(summarizedGroups > 0 ? ", " : "").append("others=").append(otherCalls);
+        }
+
+        return topGroupsSummary.toString();
+    }
+
+    /**
+     * Calls of a single group in the current interval. The count is set to {@link #CLOSED} when the group is found
+     * idle, so a call counted concurrently is either taken in the next summary, or retried in a new counter.
+     */
+    private static class GroupCounter {
+        private final AtomicLong calls = new AtomicLong();
+
+        boolean increment() {
+            while(true) {
+                var currentCalls = calls.get();
+                if(currentCalls == CLOSED) {
+                    return false;
+                }
+
+                if(calls.compareAndSet(currentCalls, currentCalls + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return the calls counted since the last summary, or 0 if there were none, so the counter got closed
+         */
+        long takeOrCloseIfIdle() {
+            while(true) {
+                var currentCalls = calls.get();
+                if(currentCalls == CLOSED) {
+                    return 0;
+                }
+
+                if(calls.compareAndSet(currentCalls, currentCalls == 0 ? CLOSED : 0)) {
+                    return currentCalls;
+                }
+            }
+        }
+    }
+}
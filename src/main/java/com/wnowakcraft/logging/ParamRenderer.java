@@ -0,0 +1,278 @@
+package com.wnowakcraft.logging;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Renders resolved expressions of a single log statement within its limits: the limits of its {@link RenderLimits},
+ * or the global ones of {@link ParamRendering} for those not overridden.
+ * Values are rendered into a builder reused by the thread, and rendering stops as soon as the maximum length
+ * is exceeded, so only the strings of the logged part of a huge collection are created.
+ */
+class ParamRenderer {
+    private static final int MAX_NESTING = 32;
+    private static final int MAX_REUSED_BUILDER_CAPACITY = 16 * 1024;
+    private static final String TRUNCATION_MARKER = "...";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final ThreadLocal<ReusableBuilder> REUSABLE_BUILDERS = ThreadLocal.withInitial(ReusableBuilder::new);
+
+    private final int maxLength;
+    private final int maxElements;
+    private final int maxDepth;
+    private final int hexBytes;
+    private final Supplier<RenderingSettings> globalSettings;
+    private volatile Limits limits;
+
+    ParamRenderer(int maxLength, int maxElements, int maxDepth, int hexBytes, Supplier<RenderingSettings> globalSettings) {
+        this.maxLength = maxLength;
+        this.maxElements = maxElements;
+        this.maxDepth = maxDepth;
+        this.hexBytes = hexBytes;
+        this.globalSettings = globalSettings;
+    }
+
+    static ParamRenderer of(RenderLimits renderLimits) {
+        return new ParamRenderer(renderLimits.maxLength(), renderLimits.maxElements(), renderLimits.maxDepth(),
+                renderLimits.hexBytes(), ParamRendering::getSettings);
+    }
+
+    /**
+     * Renders all the given params in place.
+     */
+    void renderAll(Object[] params) {
+        for(var i = 0; i < params.length; i++) {
+            params[i] = render(params[i]);
+        }
+    }
+
+    /**
+     * Renders the given value within the limits.
+     *
+     * @return the rendered value, or the value itself if there are no limits, or they can't be exceeded by it
+     */
+    Object render(Object value) {
+        if(value == null || value instanceof Number || value instanceof Boolean || value instanceof Character ||
+                value instanceof Enum) {
+            return value;
+        }
+
+        var currentLimits = currentLimits();
+        if(!currentLimits.isLimiting()) {
+            return value;
+        }
+
+        if(value instanceof CharSequence &&
+                (currentLimits.maxLength == 0 || ((CharSequence)value).length() <= currentLimits.maxLength)) {
+            return value;
+        }
+
+        var reusableBuilder = ReusableBuilder.acquire();
+        try {
+            var builder = reusableBuilder.builder;
+            if(!new Rendering(builder, currentLimits).append(value, 1)) {
+                builder.setLength(currentLimits.maxLength);
+                builder.append(TRUNCATION_MARKER);
+            }
+            return builder.toString();
+        } finally {
+            reusableBuilder.release();
+        }
+    }
+
+    private Limits currentLimits() {
+        var settings = globalSettings.get();
+        var currentLimits = limits;
+
+        if(currentLimits == null || currentLimits.settings != settings) {
+            currentLimits = new Limits(settings,
+                    maxLength >= 0 ? maxLength : settings.getMaxLength(),
+                    maxElements >= 0 ? maxElements : settings.getMaxElements(),
+                    maxDepth >= 0 ? maxDepth : settings.getMaxDepth(),
+                    hexBytes >= 0 ? hexBytes : settings.getHexBytes());
+            limits = currentLimits;
+        }
+
+        return currentLimits;
+    }
+
+    private static class Limits {
+        private final RenderingSettings settings;
+        private final int maxLength;
+        private final int maxElements;
+        private final int maxDepth;
+        private final int hexBytes;
+
+        Limits(RenderingSettings settings, int maxLength, int maxElements, int maxDepth, int hexBytes) {
+            this.settings = settings;
+            this.maxLength = maxLength;
+            this.maxElements = maxElements;
+            this.maxDepth = maxDepth;
+            this.hexBytes = hexBytes;
+        }
+
+        boolean isLimiting() {
+            return maxLength > 0 || maxElements > 0 || maxDepth > 0;
+        }
+    }
+
+    /**
+     * Rendering of a single value into the builder. Every append method returns false once the maximum length
+     * is exceeded, so the rendering stops right away.
+     */
+    private static class Rendering {
+        private final StringBuilder builder;
+        private final Limits limits;
+
+        Rendering(StringBuilder builder, Limits limits) {
+            this.builder = builder;
+            this.limits = limits;
+        }
+
+        boolean append(Object value, int depth) {
+            if(value instanceof byte[]) {
+                return appendBytes((byte[])value);
+            }
+
+            if(value instanceof Collection) {
+                var collection = (Collection<?>)value;
+                return appendElements(collection.iterator(), collection.size(), '[', ']', depth);
+            }
+
+            if(value instanceof Map) {
+                var map = (Map<?, ?>)value;
+                return appendElements(map.entrySet().iterator(), map.size(), '{', '}', depth);
+            }
+
+            if(value != null && value.getClass().isArray()) {
+                return appendElements(new ArrayIterator(value), Array.getLength(value), '[', ']', depth);
+            }
+
+            return appendText(String.valueOf(value));
+        }
+
+        private boolean appendElements(Iterator<?> elements, int size, char open, char close, int depth) {
+            if(isTooDeep(depth)) {
+                return appendText(open + TRUNCATION_MARKER + close);
+            }
+
+            builder.append(open);
+            var rendered = 0;
+            while(elements.hasNext()) {
+                if(limits.maxElements > 0 && rendered == limits.maxElements) {
+                    builder.append(", ").append(TRUNCATION_MARKER).append(' ').append(size - rendered).append(" more");
+                    break;
+                }
+
+                if(rendered > 0) {
+                    builder.append(", ");
+                }
+
+                var element = elements.next();
+                if(!(element instanceof Map.Entry ? appendEntry((Map.Entry<?, ?>)element, depth) : append(element, depth + 1))) {
+                    return false;
+                }
+                rendered++;
+            }
+            builder.append(close);
+
+            return isWithinMaxLength();
+        }
+
+        private boolean appendEntry(Map.Entry<?, ?> entry, int depth) {
+            if(!append(entry.getKey(), depth + 1)) {
+                return false;
+            }
+
+            builder.append('=');
+            return append(entry.getValue(), depth + 1);
+        }
+
+        private boolean appendBytes(byte[] bytes) {
+            builder.append("byte[").append(bytes.length).append(']');
+
+            if(limits.hexBytes > 0 && bytes.length > 0) {
+                builder.append(' ');
+                var renderedBytes = Math.min(bytes.length, limits.hexBytes);
+                for(var i = 0; i < renderedBytes; i++) {
+                    builder.append(HEX_DIGITS[(bytes[i] >> 4) & 0xf]).append(HEX_DIGITS[bytes[i] & 0xf]);
+                }
+                if(renderedBytes < bytes.length) {
+                    builder.append(TRUNCATION_MARKER);
+                }
+            }
+
+            return isWithinMaxLength();
+        }
+
+        private boolean appendText(String text) {
+            if(limits.maxLength == 0) {
+                builder.append(text);
+                return true;
+            }
+
+            var remaining = limits.maxLength - builder.length();
+            builder.append(text, 0, Math.min(text.length(), Math.max(remaining, 0) + 1));
+            return isWithinMaxLength();
+        }
+
+        private boolean isTooDeep(int depth) {
+            return depth > (limits.maxDepth > 0 ? limits.maxDepth : MAX_NESTING);
+        }
+
+        private boolean isWithinMaxLength() {
+            return limits.maxLength == 0 || builder.length() <= limits.maxLength;
+        }
+    }
+
+    private static class ArrayIterator implements Iterator<Object> {
+        private final Object array;
+        private final int length;
+        private int index;
+
+        ArrayIterator(Object array) {
+            this.array = array;
+            this.length = Array.getLength(array);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < length;
+        }
+
+        @Override
+        public Object next() {
+            return Array.get(array, index++);
+        }
+    }
+
+    /**
+     * Builder reused by a thread. A value rendered while another one is being rendered by the same thread,
+     * e.g. by <pre>toString()</pre> of an annotated class, gets a new builder.
+     */
+    private static class ReusableBuilder {
+        private final StringBuilder builder = new StringBuilder();
+        private boolean inUse;
+
+        static ReusableBuilder acquire() {
+            var reusableBuilder = REUSABLE_BUILDERS.get();
+
+            if(reusableBuilder.inUse) {
+                reusableBuilder = new ReusableBuilder();
+            }
+
+            reusableBuilder.inUse = true;
+            return reusableBuilder;
+        }
+
+        void release() {
+            builder.setLength(0);
+            if(builder.capacity() > MAX_REUSED_BUILDER_CAPACITY) {
+                builder.trimToSize();
+            }
+            inUse = false;
+        }
+    }
+}
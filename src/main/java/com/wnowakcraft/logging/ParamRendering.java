@@ -0,0 +1,36 @@
+package com.wnowakcraft.logging;
+
+/**
+ * Entry point of bounded rendering of resolved expressions.
+ * Once any limit applies to a log statement, its resolved values are rendered by the library instead of being passed
+ * to SLF4J as they are: strings and results of <pre>toString()</pre> are cut at the maximum length, and arrays,
+ * collections and maps are rendered element by element, up to the maximum number of elements and depth,
+ * so a huge result doesn't end up in a multi-megabyte log line. Byte arrays are rendered as their length,
+ * followed by the leading bytes in hex.
+ * <p>
+ * Numbers, booleans, characters and enums are always passed as they are.
+ */
+public final class ParamRendering {
+    private static volatile RenderingSettings settings = RenderingSettings.builder().build();
+
+    private ParamRendering() { }
+
+    /**
+     * Configures the global rendering limits. They apply to all the log statements, except for the limits
+     * overridden by their {@link RenderLimits}.
+     *
+     * @param settings global rendering limits
+     */
+    public static void configure(RenderingSettings settings) {
+        ParamRendering.settings = settings;
+    }
+
+    /**
+     * Returns the current global rendering limits.
+     *
+     * @return the current settings
+     */
+    public static RenderingSettings getSettings() {
+        return settings;
+    }
+}
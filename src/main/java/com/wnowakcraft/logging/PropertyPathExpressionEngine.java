@@ -0,0 +1,210 @@
+package com.wnowakcraft.logging;
+
+import com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isPublic;
+import static java.lang.reflect.Modifier.isStatic;
+
+/**
+ * Expression engine evaluating property paths, e.g. <pre>p0.customer.id</pre> or <pre>r.getStatus().name()</pre>,
+ * by method handles, with no interpretation of the expression on evaluation.
+ * A property is read by its getter, or by {@link Map#get} from maps, and a method is called only with no arguments.
+ * Navigation is null-safe: a null value on the path makes the whole expression null.
+ * <p>
+ * Members are looked up once per runtime class of the object they're navigated from, so polymorphic paths
+ * are supported as well. Expressions of any other syntax are compiled by the fallback engine, which also evaluates
+ * expressions whose member can't be found in a class by this engine, e.g. a public field.
+ */
+@RequiredArgsConstructor
+class PropertyPathExpressionEngine implements ExpressionEngine {
+    private static final Pattern PROPERTY_PATH = Pattern.compile("^\\w+(\\.[A-Za-z_]\\w*(\\(\\))?)*$");
+    private static final String METHOD_CALL_SUFFIX = "()";
+    private static final String GETTER_PREFIX = "get";
+    private static final String BOOLEAN_GETTER_PREFIX = "is";
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+    private static final MethodHandle MAP_GET = findMapGet();
+    private static final MethodHandle NOT_FOUND = MethodHandles.constant(Object.class, null);
+
+    private final ExpressionEngine fallbackEngine;
+
+    @Override
+    public Expression compile(String expression) {
+        var rootParamIndex = ExpressionResolver.getParamIndex(expression.split("\\.", 2)[0]);
+
+        if(rootParamIndex == ExpressionResolver.NOT_A_PARAM || !PROPERTY_PATH.matcher(expression).matches()) {
+            return fallbackEngine.compile(expression);
+        }
+
+        var memberNames = expression.split("\\.");
+        var members = new ArrayList<Member>(memberNames.length - 1);
+        for(var i = 1; i < memberNames.length; i++) {
+            members.add(memberNames[i].endsWith(METHOD_CALL_SUFFIX) ?
+                    new MethodCall(memberNames[i].substring(0, memberNames[i].length() - METHOD_CALL_SUFFIX.length())) :
+                    new Property(memberNames[i]));
+        }
+
+        return new PropertyPath(expression, rootParamIndex, members.toArray(Member[]::new),
+                fallbackEngine.compile(expression));
+    }
+
+    @RequiredArgsConstructor
+    private static class PropertyPath implements Expression {
+        private final String expression;
+        private final int rootParamIndex;
+        private final Member[] members;
+        private final Expression fallbackExpression;
+
+        @Override
+        public Object evaluate(ExpressionResolver resolver) {
+            var value = resolver.getParamOrNull(rootParamIndex);
+
+            for(var member : members) {
+                if(value == null) {
+                    return null;
+                }
+
+                var accessor = member.get(value.getClass());
+                if(accessor == NOT_FOUND) {
+                    return fallbackExpression.evaluate(resolver);
+                }
+
+                value = invoke(accessor, value);
+            }
+
+            return value;
+        }
+
+        private Object invoke(MethodHandle accessor, Object target) {
+            try {
+                return (Object)accessor.invokeExact(target);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Evaluation of '" + expression + "' failed. Reason: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * Single member of a property path, holding its accessors per runtime class, adapted to <pre>(Object)Object</pre> type.
+     */
+    @RequiredArgsConstructor
+    private abstract static class Member extends ClassValue<MethodHandle> {
+        protected final String name;
+
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            var accessor = findAccessor(type);
+            return accessor != null ? accessor.asType(methodType(Object.class, Object.class)) : NOT_FOUND;
+        }
+
+        abstract MethodHandle findAccessor(Class<?> type);
+    }
+
+    private static class Property extends Member {
+        private final String capitalizedName;
+
+        Property(String name) {
+            super(name);
+            this.capitalizedName = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+
+        @Override
+        MethodHandle findAccessor(Class<?> type) {
+            if(Map.class.isAssignableFrom(type)) {
+                return MethodHandles.insertArguments(MAP_GET, 1, name);
+            }
+
+            var getter = findNoArgsMethod(type, GETTER_PREFIX + capitalizedName);
+            if(getter != null) {
+                return getter;
+            }
+
+            var booleanGetter = findNoArgsMethod(type, BOOLEAN_GETTER_PREFIX + capitalizedName);
+            if(booleanGetter != null && isBoolean(booleanGetter.type().returnType())) {
+                return booleanGetter;
+            }
+
+            return null;
+        }
+
+        private static boolean isBoolean(Class<?> type) {
+            return type == boolean.class || type == Boolean.class;
+        }
+    }
+
+    private static class MethodCall extends Member {
+
+        MethodCall(String name) {
+            super(name);
+        }
+
+        @Override
+        MethodHandle findAccessor(Class<?> type) {
+            return findNoArgsMethod(type, name);
+        }
+    }
+
+    /**
+     * Finds a public instance method with no arguments, declared or inherited by the given class.
+     * If the class isn't accessible itself, e.g. it's a private implementation of a public interface,
+     * the method is looked up in its accessible superclasses and interfaces.
+     */
+    private static MethodHandle findNoArgsMethod(Class<?> type, String name) {
+        for(var candidateType : typeHierarchyOf(type)) {
+            if(!isPublic(candidateType.getModifiers())) {
+                continue;
+            }
+
+            try {
+                var method = candidateType.getMethod(name);
+                if(!isStatic(method.getModifiers())) {
+                    return LOOKUP.findVirtual(candidateType, name, methodType(method.getReturnType()));
+                }
+            } catch (NoSuchMethodException | IllegalAccessException ex) {
+                // not available in this type, looking further
+            }
+        }
+
+        return null;
+    }
+
+    private static Set<Class<?>> typeHierarchyOf(Class<?> type) {
+        var types = new LinkedHashSet<Class<?>>();
+
+        for(var superclass = type; superclass != null; superclass = superclass.getSuperclass()) {
+            types.add(superclass);
+        }
+        for(var superclass = type; superclass != null; superclass = superclass.getSuperclass()) {
+            addInterfaces(superclass, types);
+        }
+
+        return types;
+    }
+
+    private static void addInterfaces(Class<?> type, Set<Class<?>> types) {
+        for(var implementedInterface : type.getInterfaces()) {
+            if(types.add(implementedInterface)) {
+                addInterfaces(implementedInterface, types);
+            }
+        }
+    }
+
+    private static MethodHandle findMapGet() {
+        try {
+            return LOOKUP.findVirtual(Map.class, "get", methodType(Object.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new IllegalStateException("Map.get method not accessible", ex);
+        }
+    }
+}
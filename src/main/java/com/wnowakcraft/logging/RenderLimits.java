@@ -0,0 +1,47 @@
+package com.wnowakcraft.logging;
+
+import java.lang.annotation.*;
+
+/**
+ * Limits of rendering resolved expressions of a single log statement, overriding the global {@link RenderingSettings}.
+ * It's used as the <pre>limits</pre> attribute of {@link LogBefore}, {@link LogAfter} and {@link LogOnError} annotations,
+ * e.g. <pre>@LogAfter(value = "Found {r}", limits = @RenderLimits(maxElements = 10))</pre>.
+ *
+ * @see ParamRendering
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({})
+public @interface RenderLimits {
+    /**
+     * Value of a limit meaning the global setting applies.
+     */
+    int GLOBAL = -1;
+
+    /**
+     * Defines the maximum number of characters of a rendered value. Zero means there is no limit.
+     *
+     * @return the maximum number of characters
+     * */
+    int maxLength() default GLOBAL;
+
+    /**
+     * Defines the maximum number of rendered elements of an array, a collection or a map. Zero means there is no limit.
+     *
+     * @return the maximum number of elements
+     * */
+    int maxElements() default GLOBAL;
+
+    /**
+     * Defines the maximum depth of rendered arrays, collections and maps nested in each other. Zero means there is no limit.
+     *
+     * @return the maximum depth
+     * */
+    int maxDepth() default GLOBAL;
+
+    /**
+     * Defines the number of leading bytes of a byte array rendered in hex, after its length. Zero renders the length only.
+     *
+     * @return the number of bytes rendered in hex
+     * */
+    int hexBytes() default GLOBAL;
+}
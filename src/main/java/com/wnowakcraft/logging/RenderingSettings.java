@@ -0,0 +1,38 @@
+package com.wnowakcraft.logging;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Global limits of rendering resolved expressions, applying to log statements which don't override them
+ * by {@link RenderLimits}. By default there are no limits, so resolved values are passed to SLF4J as they are.
+ *
+ * @see ParamRendering
+ */
+@Getter
+@Builder
+public class RenderingSettings {
+    /**
+     * Maximum number of characters of a rendered value. Zero means there is no limit.
+     */
+    @Builder.Default
+    private final int maxLength = 0;
+
+    /**
+     * Maximum number of rendered elements of an array, a collection or a map. Zero means there is no limit.
+     */
+    @Builder.Default
+    private final int maxElements = 0;
+
+    /**
+     * Maximum depth of rendered arrays, collections and maps nested in each other. Zero means there is no limit.
+     */
+    @Builder.Default
+    private final int maxDepth = 0;
+
+    /**
+     * Number of leading bytes of a byte array rendered in hex, after its length. Zero renders the length only.
+     */
+    @Builder.Default
+    private final int hexBytes = 16;
+}
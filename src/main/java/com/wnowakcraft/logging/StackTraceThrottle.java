@@ -0,0 +1,60 @@
+package com.wnowakcraft.logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits how many full stack traces of each exception type are logged by a single log statement per minute,
+ * so a failing dependency doesn't make every invocation render the same stack trace again.
+ */
+class StackTraceThrottle {
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+    private static final int COUNT_BITS = 32;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final int stackTracesPerMinute;
+    private final LongSupplier nanoClock;
+    private final Map<Class<?>, AtomicLong> currentMinuteCounts = new ConcurrentHashMap<>();
+
+    StackTraceThrottle(int stackTracesPerMinute, LongSupplier nanoClock) {
+        this.stackTracesPerMinute = stackTracesPerMinute;
+        this.nanoClock = nanoClock;
+    }
+
+    static StackTraceThrottle of(int stackTracesPerMinute) {
+        return new StackTraceThrottle(stackTracesPerMinute, System::nanoTime);
+    }
+
+    /**
+     * Counts an occurrence of the given exception type within the current minute.
+     * The minute and the number of occurrences within it are packed into a single long,
+     * so they are updated together by a single CAS.
+     *
+     * @return zero if the stack trace of this occurrence should be logged,
+     * otherwise the number of stack traces omitted within the current minute, including this one
+     */
+    long omittedStackTraces(Class<? extends Throwable> exceptionType) {
+        var counts = currentMinuteCounts.get(exceptionType);
+        if(counts == null) {
+            counts = currentMinuteCounts.computeIfAbsent(exceptionType, type -> new AtomicLong());
+        }
+
+        var currentMinute = (nanoClock.getAsLong() / NANOS_PER_MINUTE) & COUNT_MASK;
+        long occurrences;
+
+        while(true) {
+            var minuteCount = counts.get();
+            var sameMinute = minuteCount >>> COUNT_BITS == currentMinute;
+            occurrences = sameMinute ? Math.min((minuteCount & COUNT_MASK) + 1, COUNT_MASK) : 1;
+
+            if(counts.compareAndSet(minuteCount, (currentMinute << COUNT_BITS) | occurrences)) {
+                break;
+            }
+        }
+
+        return Math.max(occurrences - stackTracesPerMinute, 0);
+    }
+}
@@ -0,0 +1,67 @@
+package com.wnowakcraft.logging;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Runtime override of the settings of a log statement, given by its annotation.
+ * Settings which are not set keep their annotated values.
+ *
+ * @see LogStatements
+ */
+@Getter
+public class StatementOverride {
+    /**
+     * Whether the log statement is logged at all, true by default.
+     */
+    private final boolean enabled;
+
+    /**
+     * Severity level of the log statement, or null to keep the annotated one.
+     */
+    private final Level level;
+
+    /**
+     * Every n-th invocation to be logged, at least 1, or null. Sampling settings apply to {@link LogBefore} and {@link LogAfter}
+     * statements only, and once any of them is set, they replace all the annotated ones, with the unset ones not limiting.
+     */
+    private final Integer everyNth;
+
+    /**
+     * Fraction of invocations to be logged, between 0 and 1, or null.
+     */
+    private final Double sampleRate;
+
+    /**
+     * Maximum number of messages logged per second, or null. Zero means there is no limit.
+     */
+    private final Integer maxPerSecond;
+
+    /**
+     * @throws IllegalArgumentException if any of the sampling settings is out of range
+     */
+    @Builder(toBuilder = true)
+    private StatementOverride(Boolean enabled, Level level, Integer everyNth, Double sampleRate, Integer maxPerSecond) {
+        if(everyNth != null && everyNth < 1) {
+            throw new IllegalArgumentException("Every n-th invocation must be at least 1, but was " + everyNth);
+        }
+
+        if(sampleRate != null && !(sampleRate >= 0.0 && sampleRate <= 1.0)) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1, but was " + sampleRate);
+        }
+
+        if(maxPerSecond != null && maxPerSecond < 0) {
+            throw new IllegalArgumentException("Maximum number of messages per second must not be negative, but was " + maxPerSecond);
+        }
+
+        this.enabled = enabled == null || enabled;
+        this.level = level;
+        this.everyNth = everyNth;
+        this.sampleRate = sampleRate;
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    boolean overridesSampling() {
+        return everyNth != null || sampleRate != null || maxPerSecond != null;
+    }
+}
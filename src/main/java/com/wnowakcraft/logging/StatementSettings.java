@@ -0,0 +1,34 @@
+package com.wnowakcraft.logging;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Immutable settings of a log statement which can be overridden at runtime: whether it's enabled, its level and sampler.
+ * A statement holds its current settings in a single volatile field, read once per invocation, so the invocation
+ * is checked, sampled and logged according to the same settings, even if they're overridden in the meantime.
+ */
+@Getter
+@RequiredArgsConstructor
+class StatementSettings {
+    private final boolean enabled;
+    private final Level level;
+    private final LogSampler sampler;
+
+    /**
+     * Returns these settings with the given override applied.
+     */
+    StatementSettings overriddenBy(StatementOverride override) {
+        var overriddenLevel = override.getLevel() != null ? override.getLevel() : level;
+        var overriddenSampler = sampler;
+
+        if(override.overridesSampling()) {
+            overriddenSampler = LogSampler.of(
+                    override.getEveryNth() != null ? override.getEveryNth() : 1,
+                    override.getSampleRate() != null ? override.getSampleRate() : 1.0,
+                    override.getMaxPerSecond() != null ? override.getMaxPerSecond() : 0);
+        }
+
+        return new StatementSettings(override.isEnabled(), overriddenLevel, overriddenSampler);
+    }
+}
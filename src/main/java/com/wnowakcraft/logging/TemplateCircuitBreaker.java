@@ -0,0 +1,115 @@
+package com.wnowakcraft.logging;
+
+import com.wnowakcraft.logging.TemplateFailureSettings.DegradedMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Tracks failures of a single log statement, and degrades it after too many consecutive ones,
+ * so a broken template doesn't throw, fill in a stack trace and log a warning on every invocation.
+ * While degraded, the template is not evaluated until the retry period elapses; then a single invocation
+ * evaluates it again. Success restores the statement, another failure doubles the retry period.
+ */
+class TemplateCircuitBreaker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TemplateCircuitBreaker.class);
+    private static final long CLOSED = 0;
+
+    private final String template;
+    private final Supplier<TemplateFailureSettings> settings;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean retrying = new AtomicBoolean();
+    private final LongAdder degradedInvocations = new LongAdder();
+    private volatile long degradedUntilNanos = CLOSED;
+    private volatile long retryAfterNanos;
+
+    TemplateCircuitBreaker(String template, Supplier<TemplateFailureSettings> settings, LongSupplier nanoClock) {
+        this.template = template;
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+    }
+
+    static TemplateCircuitBreaker of(String template) {
+        return new TemplateCircuitBreaker(template, TemplateFailures::getSettings, System::nanoTime);
+    }
+
+    /**
+     * Tells whether the template should be evaluated by the current invocation. If not, the invocation
+     * is counted as degraded, and the statement should be logged according to {@link #getDegradedMode()}.
+     *
+     * @return true if the template should be evaluated
+     */
+    boolean allowsEvaluation() {
+        var degradedUntil = degradedUntilNanos;
+        if(degradedUntil == CLOSED) {
+            return true;
+        }
+
+        if(nanoClock.getAsLong() - degradedUntil >= 0 && retrying.compareAndSet(false, true)) {
+            return true;
+        }
+
+        degradedInvocations.increment();
+        return false;
+    }
+
+    DegradedMode getDegradedMode() {
+        return settings.get().getDegradedMode();
+    }
+
+    void recordSuccess() {
+        if(consecutiveFailures.get() == 0) {
+            return;
+        }
+
+        consecutiveFailures.set(0);
+        if(degradedUntilNanos != CLOSED) {
+            degradedUntilNanos = CLOSED;
+            retrying.set(false);
+            LOGGER.info("Log template \"{}\" works again after {} degraded invocation(s)",
+                    template, degradedInvocations.sumThenReset());
+        }
+    }
+
+    /**
+     * Records a failure of the template.
+     *
+     * @return true if the failure should still be reported by the caller, false if it was already reported here,
+     * because the statement got degraded or the retry of a degraded statement failed
+     */
+    boolean recordFailure(Exception failure) {
+        var currentSettings = settings.get();
+
+        if(degradedUntilNanos != CLOSED) {
+            if(!retrying.get()) {
+                return false;
+            }
+
+            retryAfterNanos = Math.min(retryAfterNanos * 2, currentSettings.getMaxRetryAfter().toNanos());
+            degradedUntilNanos = nanoClock.getAsLong() + retryAfterNanos;
+            retrying.set(false);
+            LOGGER.warn("Log template \"" + template + "\" still fails, " + degradedInvocations.sumThenReset() +
+                    " invocation(s) were degraded since the last warning. Retrying in " + retryAfterNanos / 1_000_000 +
+                    " ms. Reason: " + failure.getMessage(), failure);
+            return false;
+        }
+
+        var failures = consecutiveFailures.incrementAndGet();
+        if(failures < currentSettings.getFailureThreshold()) {
+            return true;
+        }
+
+        retryAfterNanos = currentSettings.getRetryAfter().toNanos();
+        degradedUntilNanos = nanoClock.getAsLong() + retryAfterNanos;
+        LOGGER.warn("Log template \"" + template + "\" failed " + failures + " time(s) in a row, it's degraded to " +
+                currentSettings.getDegradedMode() + " for " + retryAfterNanos / 1_000_000 + " ms. Reason: " +
+                failure.getMessage(), failure);
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package com.wnowakcraft.logging;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Settings of handling log templates which keep failing, e.g. because an expression throws an exception.
+ *
+ * @see TemplateFailures
+ */
+@Getter
+@Builder
+public class TemplateFailureSettings {
+    /**
+     * Number of consecutive failures of a log statement after which it's degraded.
+     */
+    @Builder.Default
+    private final int failureThreshold = 5;
+
+    /**
+     * How long a log statement stays degraded before its template is evaluated again.
+     * It's doubled after every further failure, up to {@link #maxRetryAfter}.
+     */
+    @Builder.Default
+    private final Duration retryAfter = Duration.ofSeconds(30);
+
+    /**
+     * Maximum time a log statement stays degraded before its template is evaluated again.
+     */
+    @Builder.Default
+    private final Duration maxRetryAfter = Duration.ofMinutes(10);
+
+    /**
+     * What a degraded log statement logs.
+     */
+    @Builder.Default
+    private final DegradedMode degradedMode = DegradedMode.PLACEHOLDERS;
+
+    /**
+     * Defines what a degraded log statement logs.
+     */
+    public enum DegradedMode {
+        /** The message is logged with a marker in place of every expression */
+        PLACEHOLDERS,
+
+        /** Nothing is logged */
+        SKIP
+    }
+}
@@ -0,0 +1,31 @@
+package com.wnowakcraft.logging;
+
+/**
+ * Entry point of handling log templates which keep failing.
+ * A log statement failing the configured number of times in a row is degraded: its expressions are no longer
+ * evaluated, and it's either logged with placeholders or skipped, while a single warning is logged per retry period.
+ * After the retry period, the template is evaluated again, and the log statement is restored once it succeeds.
+ */
+public final class TemplateFailures {
+    private static volatile TemplateFailureSettings settings = TemplateFailureSettings.builder().build();
+
+    private TemplateFailures() { }
+
+    /**
+     * Configures handling of failing log templates. It applies to all the log statements, including already degraded ones.
+     *
+     * @param settings failing templates settings
+     */
+    public static void configure(TemplateFailureSettings settings) {
+        TemplateFailures.settings = settings;
+    }
+
+    /**
+     * Returns the current settings of handling failing log templates.
+     *
+     * @return the current settings
+     */
+    public static TemplateFailureSettings getSettings() {
+        return settings;
+    }
+}
@@ -0,0 +1,24 @@
+package com.wnowakcraft.logging;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation being used to measure the execution time of the annotated method.
+ * Measured latencies are recorded in a per-method histogram, which can be read with {@link MethodLatencies},
+ * or periodically reported to the logger of the annotated method's class.
+ * It can be only put at method level.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Timed {
+    /**
+     * Defines a severity level of periodic latency reports.
+     *
+     * @return the severity level
+     * @see MethodLatencies#reportEvery(java.time.Duration)
+     * */
+    Level level() default Level.INFO;
+}
@@ -0,0 +1,65 @@
+package com.wnowakcraft.logging;
+
+import org.slf4j.Logger;
+
+/**
+ * Latencies of a single method annotated with {@link Timed}, together with what's needed to report them.
+ */
+class TimedMethod {
+    private final String methodName;
+    private final Level level;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private volatile LatencyHistogram intervalLatencies = new LatencyHistogram();
+    private volatile Logger logger;
+
+    TimedMethod(String methodName, Level level) {
+        this.methodName = methodName;
+        this.level = level;
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    boolean hasLogger() {
+        return logger != null;
+    }
+
+    void setLogger(Logger logger) {
+        this.logger = logger;
+    }
+
+    void record(long elapsedNanos) {
+        latencies.record(elapsedNanos);
+        intervalLatencies.record(elapsedNanos);
+    }
+
+    LatencySnapshot snapshot() {
+        return latencies.snapshot();
+    }
+
+    void reset() {
+        latencies.reset();
+        intervalLatencies = new LatencyHistogram();
+    }
+
+    /**
+     * Logs latencies of invocations since the last report to the logger of the method's class, if there were any.
+     * The interval histogram is swapped for an empty one, so each report covers its own interval only,
+     * while {@link #snapshot()} keeps covering all the invocations. It's called by a single reporting thread only.
+     */
+    void report() {
+        var currentLogger = logger;
+        if(currentLogger == null || !level.isEnabled(currentLogger)) {
+            return;
+        }
+
+        var reportedLatencies = intervalLatencies;
+        intervalLatencies = new LatencyHistogram();
+
+        var snapshot = reportedLatencies.snapshot();
+        if(snapshot.getCount() > 0) {
+            level.log(currentLogger, "Latency of {}: {}", methodName, snapshot);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.wnowakcraft.logging;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Restricts AspectJ load-time weaving to packages and types known to contain annotated methods,
+ * so the weaver doesn't need to examine every method of every loaded class.
+ * <pre>
+ * WeavingScope.create()
+ *         .includePackage("com.acme.orders")
+ *         .includeIndexedTypes()
+ *         .install();
+ * </pre>
+ * The generated configuration can be either installed, or written to the application's own
+ * <pre>META-INF/aop.xml</pre> upfront.
+ */
+public final class WeavingScope {
+    /** System property listing AspectJ load-time weaving configuration files */
+    public static final String CONFIGURATION_PROPERTY = "org.aspectj.weaver.loadtime.configuration";
+    private static final String DEFAULT_CONFIGURATION = "META-INF/aop.xml;META-INF/aop-ajc.xml;org/aspectj/aop.xml";
+    private final Set<String> includedTypes = new TreeSet<>();
+
+    private WeavingScope() { }
+
+    /**
+     * Creates an empty scope. A scope with nothing included doesn't restrict weaving at all.
+     *
+     * @return new scope
+     */
+    public static WeavingScope create() {
+        return new WeavingScope();
+    }
+
+    /**
+     * Includes all the types of the given package and its subpackages.
+     *
+     * @param packageName package name, e.g. <pre>com.acme.orders</pre>
+     * @return this scope
+     */
+    public WeavingScope includePackage(String packageName) {
+        includedTypes.add(packageName + "..*");
+        return this;
+    }
+
+    /**
+     * Includes the given type.
+     *
+     * @param typeName fully qualified type name, e.g. <pre>com.acme.orders.OrderService</pre>
+     * @return this scope
+     */
+    public WeavingScope includeType(String typeName) {
+        includedTypes.add(typeName);
+        return this;
+    }
+
+    /**
+     * Includes all the types having log templates in the {@link LogTemplateIndex} visible to the context class loader.
+     * Types having only {@link Timed} or {@link LogSummary} methods are not indexed, so they need to be included explicitly.
+     *
+     * @return this scope
+     */
+    public WeavingScope includeIndexedTypes() {
+        var classLoader = Thread.currentThread().getContextClassLoader();
+        return includeIndexedTypes(classLoader != null ? classLoader : WeavingScope.class.getClassLoader());
+    }
+
+    /**
+     * Includes all the types having log templates in the {@link LogTemplateIndex} visible to the given class loader.
+     * Types having only {@link Timed} or {@link LogSummary} methods are not indexed, so they need to be included explicitly.
+     *
+     * @param classLoader class loader used to find the indexes
+     * @return this scope
+     */
+    public WeavingScope includeIndexedTypes(ClassLoader classLoader) {
+        for(var entry : LogTemplateIndex.load(classLoader)) {
+            includedTypes.add(entry.getClassName());
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns AspectJ load-time weaving configuration declaring {@link LogAspect} and restricting weaving to this scope.
+     *
+     * @return content of <pre>aop.xml</pre> file
+     */
+    public String toAopXml() {
+        return AopXml.of(includedTypes);
+    }
+
+    /**
+     * Writes the configuration of this scope to a temporary file and adds it to the configuration files
+     * read by AspectJ load-time weaver. AspectJ reads them when it starts weaving a class loader, so it takes
+     * effect only for class loaders which haven't loaded any class yet, e.g. the one of a web application
+     * or a nested jar launcher, when it's called before the application is started.
+     * The application's own <pre>aop.xml</pre> must not declare {@link LogAspect} again.
+     *
+     * @return path of the written configuration file
+     * @throws IOException if the configuration file can't be written
+     */
+    public Path install() throws IOException {
+        var aopXml = Files.createTempFile("annotated-logging-aop", ".xml");
+        aopXml.toFile().deleteOnExit();
+        Files.writeString(aopXml, toAopXml(), UTF_8);
+
+        var currentConfiguration = System.getProperty(CONFIGURATION_PROPERTY, DEFAULT_CONFIGURATION);
+        System.setProperty(CONFIGURATION_PROPERTY, aopXml.toUri() + ";" + currentConfiguration);
+        return aopXml;
+    }
+}
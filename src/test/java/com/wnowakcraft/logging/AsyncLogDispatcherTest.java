@@ -0,0 +1,216 @@
+package com.wnowakcraft.logging;
+
+import com.wnowakcraft.logging.AsyncLoggingSettings.Backpressure;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class AsyncLogDispatcherTest {
+    private static final String WORKER_NAME_PREFIX = "annotated-logging-async-";
+    private final CountDownLatch workerLogging = new CountDownLatch(1);
+    private final CountDownLatch workersReleased = new CountDownLatch(1);
+    private final List<Object> loggedParams = Collections.synchronizedList(new ArrayList<>());
+    private final Logger logger = mock(Logger.class);
+    private LogStatement logStatement;
+    private AsyncLogDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        var logBefore = AsyncLogDispatcherTest.class.getDeclaredMethod("logged", int.class).getAnnotation(LogBefore.class);
+        logStatement = LogStatement.of(logBefore, "AsyncLogDispatcherTest.logged(int)", 0, new LoggingStats());
+
+        doAnswer(invocation -> {
+            if(Thread.currentThread().getName().startsWith(WORKER_NAME_PREFIX)) {
+                workerLogging.countDown();
+                workersReleased.await();
+            }
+            loggedParams.add(invocation.getArgument(1));
+            return null;
+        }).when(logger).info(anyString(), (Object)any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        workersReleased.countDown();
+        if(dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void flushWaitsForPendingEvents_untilTheyAreLogged() {
+        dispatcher = dispatcher(8, Backpressure.DROP);
+        dispatch(1, 2, 3);
+
+        assertThat(dispatcher.flush(Duration.ofMillis(50))).isFalse();
+
+        workersReleased.countDown();
+        assertThat(dispatcher.flush(Duration.ofSeconds(5))).isTrue();
+        assertThat(loggedParams).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void dropsEvents_whenBufferIsFull_withDropPolicy() throws Exception {
+        dispatcher = dispatcher(2, Backpressure.DROP);
+        fillBufferWhileWorkerIsBusy();
+
+        dispatch(4);
+        workersReleased.countDown();
+
+        assertThat(dispatcher.flush(Duration.ofSeconds(5))).isTrue();
+        assertThat(dispatcher.getDroppedEventsCount()).isEqualTo(1);
+        assertThat(loggedParams).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void logsEventsOnCallingThread_whenBufferIsFull_withSyncPolicy() throws Exception {
+        dispatcher = dispatcher(2, Backpressure.SYNC);
+        fillBufferWhileWorkerIsBusy();
+
+        dispatch(4);
+        assertThat(loggedParams).containsExactly(4);
+        workersReleased.countDown();
+
+        assertThat(dispatcher.flush(Duration.ofSeconds(5))).isTrue();
+        assertThat(dispatcher.getSynchronouslyLoggedEventsCount()).isEqualTo(1);
+        assertThat(loggedParams).containsExactly(4, 1, 2, 3);
+    }
+
+    @Test
+    void blocksCallingThread_whenBufferIsFull_withBlockPolicy() throws Exception {
+        dispatcher = dispatcher(2, Backpressure.BLOCK);
+        fillBufferWhileWorkerIsBusy();
+
+        var blockedDispatch = CompletableFuture.runAsync(() -> dispatch(4));
+        Thread.sleep(100);
+        assertThat(blockedDispatch).isNotDone();
+
+        workersReleased.countDown();
+        blockedDispatch.get(5, TimeUnit.SECONDS);
+
+        assertThat(dispatcher.flush(Duration.ofSeconds(5))).isTrue();
+        assertThat(dispatcher.getDroppedEventsCount()).isZero();
+        assertThat(dispatcher.getSynchronouslyLoggedEventsCount()).isZero();
+        assertThat(loggedParams).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void parksIdleWorkers_untilEventIsPublished() throws Exception {
+        dispatcher = dispatcher(8, Backpressure.DROP);
+        workersReleased.countDown();
+
+        var worker = awaitWorkerState(Thread.State.WAITING);
+        dispatch(1);
+
+        assertThat(dispatcher.flush(Duration.ofSeconds(5))).isTrue();
+        assertThat(loggedParams).containsExactly(1);
+        assertThat(awaitWorkerState(Thread.State.WAITING)).isSameAs(worker);
+    }
+
+    @Test
+    void logsEventsOnCallingThread_afterShutdown_regardlessOfPolicy() {
+        dispatcher = dispatcher(8, Backpressure.DROP);
+        workersReleased.countDown();
+        dispatcher.shutdown();
+
+        dispatch(1);
+
+        assertThat(loggedParams).containsExactly(1);
+        assertThat(dispatcher.getDroppedEventsCount()).isZero();
+        assertThat(dispatcher.getSynchronouslyLoggedEventsCount()).isEqualTo(1);
+    }
+
+    @Test
+    void logsAllEvents_whenDispatcherIsReplacedByConfigureWhileDispatching() throws Exception {
+        workersReleased.countDown();
+        var settings = AsyncLoggingSettings.builder().bufferSize(1 << 16).backpressure(Backpressure.DROP).build();
+        AsyncLogging.configure(settings);
+
+        var producers = IntStream.range(0, 4)
+                .mapToObj(producer -> CompletableFuture.runAsync(() -> {
+                    for(var batch = 0; batch < 100; batch++) {
+                        var currentDispatcher = AsyncLogging.dispatcher();
+                        for(var i = 0; i < 100; i++) {
+                            currentDispatcher.dispatch(logStatement, logStatement.getSettings(), logger, new Object[] { i }, null,
+                                    LogMessageParamsResolver.ExpressionResolver.NOT_MEASURED);
+                        }
+                    }
+                }))
+                .toArray(CompletableFuture[]::new);
+        var allDispatched = CompletableFuture.allOf(producers);
+        while(!allDispatched.isDone()) {
+            AsyncLogging.configure(settings);
+        }
+        allDispatched.get(5, TimeUnit.SECONDS);
+        dispatcher = AsyncLogging.dispatcher();
+
+        assertThat(AsyncLogging.flush(Duration.ofSeconds(5))).isTrue();
+        assertThat(loggedParams).hasSize(4 * 10_000);
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "1, 1", "1073741825, 1", "8, 0" })
+    void rejectsSettings_withBufferSizeOrWorkersOutOfRange(int bufferSize, int workers) {
+        var settings = AsyncLoggingSettings.builder().bufferSize(bufferSize).workers(workers).build();
+
+        assertThatThrownBy(() -> AsyncLogging.configure(settings)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @LogBefore(value = "Logged {p0}", level = Level.INFO)
+    void logged(int value) { }
+
+    private AsyncLogDispatcher dispatcher(int bufferSize, Backpressure backpressure) {
+        return new AsyncLogDispatcher(AsyncLoggingSettings.builder()
+                .bufferSize(bufferSize)
+                .backpressure(backpressure)
+                .shutdownTimeout(Duration.ofSeconds(5))
+                .build());
+    }
+
+    private void fillBufferWhileWorkerIsBusy() throws InterruptedException {
+        dispatch(1);
+        assertThat(workerLogging.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatch(2, 3);
+    }
+
+    private void dispatch(int... values) {
+        for(var value : values) {
+            dispatcher.dispatch(logStatement, logStatement.getSettings(), logger, new Object[] { value }, null,
+                    LogMessageParamsResolver.ExpressionResolver.NOT_MEASURED);
+        }
+    }
+
+    private static Thread awaitWorkerState(Thread.State state) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while(System.nanoTime() < deadline) {
+            for(var thread : Thread.getAllStackTraces().keySet()) {
+                if(thread.getName().startsWith(WORKER_NAME_PREFIX) && thread.isAlive() && thread.getState() == state) {
+                    return thread;
+                }
+            }
+            Thread.sleep(10);
+        }
+
+        throw new AssertionError("No worker reached state " + state);
+    }
+}
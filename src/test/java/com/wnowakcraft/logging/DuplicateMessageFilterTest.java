@@ -0,0 +1,96 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuplicateMessageFilterTest {
+    private static final long WINDOW_MILLIS = 1000;
+    private static final Logger LOGGER = LoggerFactory.getLogger(DuplicateMessageFilterTest.class);
+    private final AtomicLong nanoClock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+    private final List<String> repeatedMessages = new ArrayList<>();
+    private final DuplicateMessageFilter filter = new DuplicateMessageFilter(WINDOW_MILLIS, nanoClock::get,
+            (logger, params, repetitions) -> repeatedMessages.add(List.of(params) + " x" + repetitions));
+
+    @Test
+    void createsNoFilter_whenWindowIsNotPositive() {
+        assertThat(DuplicateMessageFilter.of(0, (logger, params, repetitions) -> { })).isNull();
+    }
+
+    @Test
+    void passesFirstMessage_andCountsIdenticalOnesWithinWindow() {
+        assertThat(filter.isFirstInWindow(LOGGER, new Object[] { "order-1", 5 })).isTrue();
+        assertThat(filter.isFirstInWindow(LOGGER, new Object[] { "order-1", 5 })).isFalse();
+        assertThat(filter.isFirstInWindow(LOGGER, new Object[] { "order-1", 5 })).isFalse();
+        assertThat(filter.isFirstInWindow(LOGGER, new Object[] { "order-2", 5 })).isTrue();
+        assertThat(filter.isFirstInWindow(LOGGER, new Object[] { "order-1", 6 })).isTrue();
+    }
+
+    @Test
+    void logsNumberOfRepetitions_whenWindowCloses() {
+        filter.isFirstInWindow(LOGGER, new Object[] { "order-1" });
+        filter.isFirstInWindow(LOGGER, new Object[] { "order-1" });
+        filter.isFirstInWindow(LOGGER, new Object[] { "order-1" });
+        filter.isFirstInWindow(LOGGER, new Object[] { "order-2" });
+
+        nanoClock.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW_MILLIS));
+        filter.closeExpiredWindows();
+
+        assertThat(repeatedMessages).containsExactly("[order-1] x2");
+        assertThat(filter.getOpenWindowsCount()).isZero();
+    }
+
+    @Test
+    void logsRepetitionsWithParamsRenderedWhenWindowWasOpened_evenIfParamObjectsChanged() {
+        var items = new ArrayList<>(List.of("book"));
+        filter.isFirstInWindow(LOGGER, new Object[] { items });
+        filter.isFirstInWindow(LOGGER, new Object[] { List.of("book") });
+        items.add("pen");
+
+        nanoClock.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW_MILLIS));
+        filter.closeExpiredWindows();
+
+        assertThat(repeatedMessages).containsExactly("[[book]] x1");
+    }
+
+    @Test
+    void logsRepetitionsOfArrayParams_renderedLikeByLogger() {
+        filter.isFirstInWindow(LOGGER, new Object[] { new int[] { 1, 2 } });
+        filter.isFirstInWindow(LOGGER, new Object[] { new int[] { 1, 2 } });
+
+        nanoClock.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW_MILLIS));
+        filter.closeExpiredWindows();
+
+        assertThat(repeatedMessages).containsExactly("[[1, 2]] x1");
+    }
+
+    @Test
+    void closesExpiredWindowAndOpensNewOne_onNextIdenticalMessage() {
+        filter.isFirstInWindow(LOGGER, new Object[] { "order-1" });
+        filter.isFirstInWindow(LOGGER, new Object[] { "order-1" });
+
+        nanoClock.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW_MILLIS));
+
+        assertThat(filter.isFirstInWindow(LOGGER, new Object[] { "order-1" })).isTrue();
+        assertThat(repeatedMessages).containsExactly("[order-1] x1");
+        assertThat(filter.isFirstInWindow(LOGGER, new Object[] { "order-1" })).isFalse();
+    }
+
+    @Test
+    void passesAllMessages_whenTrackedMessagesLimitIsReached() {
+        for(var i = 0; i < DuplicateMessageFilter.MAX_TRACKED_MESSAGES; i++) {
+            filter.isFirstInWindow(LOGGER, new Object[] { i });
+        }
+
+        assertThat(filter.isFirstInWindow(LOGGER, new Object[] { "untracked" })).isTrue();
+        assertThat(filter.isFirstInWindow(LOGGER, new Object[] { "untracked" })).isTrue();
+        assertThat(filter.isFirstInWindow(LOGGER, new Object[] { 0 })).isFalse();
+    }
+}
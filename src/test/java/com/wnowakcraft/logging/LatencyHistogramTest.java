@@ -0,0 +1,57 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    void bucketContainsItsUpperBound_andFollowsThePreviousBucket() {
+        for(var bucketIndex = 1; bucketIndex < LatencyHistogram.bucketIndexOf(Long.MAX_VALUE); bucketIndex++) {
+            var upperBound = LatencyHistogram.bucketUpperBoundOf(bucketIndex);
+            var lowerBound = LatencyHistogram.bucketUpperBoundOf(bucketIndex - 1) + 1;
+
+            assertThat(LatencyHistogram.bucketIndexOf(upperBound)).isEqualTo(bucketIndex);
+            assertThat(LatencyHistogram.bucketIndexOf(lowerBound)).isEqualTo(bucketIndex);
+        }
+    }
+
+    @Test
+    void bucketsHaveAtMostSixAndQuarterPercentRelativeError() {
+        LongStream.of(31, 32, 1_000, 123_456, 1_000_000, 987_654_321, Long.MAX_VALUE / 3).forEach(value -> {
+            var upperBound = LatencyHistogram.bucketUpperBoundOf(LatencyHistogram.bucketIndexOf(value));
+
+            assertThat(upperBound).isGreaterThanOrEqualTo(value);
+            assertThat((double)(upperBound - value) / value).isLessThanOrEqualTo(0.0625);
+        });
+    }
+
+    @Test
+    void snapshotContainsCountMeanMaxAndPercentiles() {
+        LongStream.rangeClosed(1, 1000).forEach(i -> histogram.record(i * 1000));
+
+        var snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getCount()).isEqualTo(1000);
+        assertThat(snapshot.getMeanNanos()).isEqualTo(500_500);
+        assertThat(snapshot.getMaxNanos()).isEqualTo(1_000_000);
+        assertThat(snapshot.getP50Nanos()).isBetween(500_000L, 531_250L);
+        assertThat(snapshot.getP99Nanos()).isBetween(990_000L, 1_051_875L);
+    }
+
+    @Test
+    void resetClearsAllRecordedLatencies() {
+        histogram.record(1000);
+
+        histogram.reset();
+
+        var snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isZero();
+        assertThat(snapshot.getMaxNanos()).isZero();
+        assertThat(snapshot.getP50Nanos()).isZero();
+    }
+}
@@ -0,0 +1,219 @@
+package com.wnowakcraft.logging;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class LogAspectTest {
+    private static final Answer<Object> ALL_LEVELS_ENABLED = invocation ->
+            invocation.getMethod().getReturnType() == boolean.class ? Boolean.TRUE : RETURNS_DEFAULTS.answer(invocation);
+    private final Logger logger = mock(Logger.class, ALL_LEVELS_ENABLED);
+    private final OrderService orderService = new OrderService(logger);
+    private final LogAspect logAspect = new LogAspect();
+
+    @Test
+    void logsValueOfReturnedStage_whenItCompletes() throws Throwable {
+        var stage = new CompletableFuture<String>();
+
+        var result = logAspect.logAfter(joinPoint("find", stage));
+
+        assertThat(result).isSameAs(stage);
+        assertThat(loggedMessages()).isEmpty();
+
+        stage.complete("order-1");
+
+        assertThat(loggedMessages()).containsExactly("Found order-1 by id-1");
+    }
+
+    @Test
+    void logsValueOfAlreadyCompletedStage_onCallingThread() throws Throwable {
+        logAspect.logAfter(joinPoint("find", CompletableFuture.completedFuture("order-1")));
+
+        assertThat(loggedMessages()).containsExactly("Found order-1 by id-1");
+    }
+
+    @Test
+    void logsReturnedValue_whenItsNotStage() throws Throwable {
+        logAspect.logAfter(joinPoint("find", "order-1"));
+
+        assertThat(loggedMessages()).containsExactly("Found order-1 by id-1");
+    }
+
+    @Test
+    void logsErrorStatementsWithCauseOfCompletionException_whenStageCompletesExceptionally() throws Throwable {
+        var stage = new CompletableFuture<String>();
+
+        logAspect.logAfter(joinPoint("findOrFail", stage.thenApply(Function.identity())));
+        stage.completeExceptionally(new IllegalStateException("timeout"));
+
+        assertThat(loggedMessages()).containsExactly("Couldn't find id-1: IllegalStateException timeout");
+    }
+
+    @Test
+    void logsErrorStatementsWithCauseOfExecutionException_whenStageCompletesExceptionally() throws Throwable {
+        var stage = new CompletableFuture<String>();
+
+        logAspect.logAfter(joinPoint("findOrFail", stage));
+        stage.completeExceptionally(new ExecutionException(new IllegalStateException("timeout")));
+
+        assertThat(loggedMessages()).containsExactly("Couldn't find id-1: IllegalStateException timeout");
+    }
+
+    @Test
+    void logsErrorStatementsWithFailureItself_whenItsNotWrapped() throws Throwable {
+        var stage = new CompletableFuture<String>();
+
+        logAspect.logAfter(joinPoint("findOrFail", stage));
+        stage.completeExceptionally(new CompletionException("timeout", null));
+
+        assertThat(loggedMessages()).containsExactly("Couldn't find id-1: CompletionException timeout");
+    }
+
+    @Test
+    void logsNothing_whenStageCompletesExceptionally_andMethodHasNoErrorStatements() throws Throwable {
+        var stage = new CompletableFuture<String>();
+
+        logAspect.logAfter(joinPoint("find", stage));
+        stage.completeExceptionally(new IllegalStateException("timeout"));
+
+        assertThat(loggedMessages()).isEmpty();
+    }
+
+    @Test
+    void logsStatement_onlyWhenConditionIsMet() throws Throwable {
+        logAspect.logBefore(joinPoint("findByPrefix", null));
+        logAspect.logBefore(joinPoint("findByPrefix", null, "order-1"));
+
+        assertThat(loggedMessages()).containsExactly("Finding id-1");
+    }
+
+    @Test
+    void skipsStatementWithFailingCondition_andStopsEvaluatingIt_onceItsDegraded() throws Throwable {
+        var joinPoint = joinPoint("findBySuffix", null);
+
+        for(var i = 0; i < 10; i++) {
+            logAspect.logBefore(joinPoint);
+        }
+
+        assertThat(loggedMessages()).isEmpty();
+        assertThat(LoggingStatistics.getSnapshots())
+                .extractingByKey(OrderService.class.getName() + ".findBySuffix(String)")
+                .satisfies(stats -> {
+                    assertThat(stats.getFailures()).isEqualTo(5);
+                    assertThat(stats.getSkippedByCondition()).isEqualTo(10 - 5);
+                });
+    }
+
+    @Test
+    void skipsStatementWithConditionNotCompiling_andStopsEvaluatingIt_onceItsDegraded() throws Throwable {
+        var joinPoint = joinPoint("findByInvalidCondition", null);
+
+        for(var i = 0; i < 10; i++) {
+            logAspect.logBefore(joinPoint);
+        }
+
+        assertThat(loggedMessages()).isEmpty();
+        assertThat(LoggingStatistics.getSnapshots())
+                .extractingByKey(OrderService.class.getName() + ".findByInvalidCondition(String)")
+                .satisfies(stats -> {
+                    assertThat(stats.getFailures()).isEqualTo(5);
+                    assertThat(stats.getSkippedByCondition()).isEqualTo(10 - 5);
+                });
+    }
+
+    @Test
+    void proceedsWithMethod_whenItsSummaryIsMisconfigured() throws Throwable {
+        var joinPoint = joinPoint("summarize", "order-1");
+
+        assertThat(logAspect.logAfter(joinPoint)).isEqualTo("order-1");
+        assertThat(logAspect.logAfter(joinPoint)).isEqualTo("order-1");
+
+        verify(joinPoint, times(2)).proceed();
+    }
+
+    private ProceedingJoinPoint joinPoint(String methodName, Object result) throws Throwable {
+        return joinPoint(methodName, result, "id-1");
+    }
+
+    private ProceedingJoinPoint joinPoint(String methodName, Object result, String id) throws Throwable {
+        var method = OrderService.class.getDeclaredMethod(methodName, String.class);
+        var signature = mock(MethodSignature.class);
+        doReturn(method).when(signature).getMethod();
+        doReturn(OrderService.class).when(signature).getDeclaringType();
+        var staticPart = mock(JoinPoint.StaticPart.class);
+        doReturn(signature).when(staticPart).getSignature();
+
+        var joinPoint = mock(ProceedingJoinPoint.class);
+        doReturn(staticPart).when(joinPoint).getStaticPart();
+        doReturn(orderService).when(joinPoint).getTarget();
+        doReturn(new Object[] { id }).when(joinPoint).getArgs();
+        doReturn(result).when(joinPoint).proceed();
+        return joinPoint;
+    }
+
+    private List<String> loggedMessages() {
+        return mockingDetails(logger).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getReturnType() == void.class)
+                .map(invocation -> {
+                    var arguments = invocation.getArguments();
+                    return MessageFormatter.arrayFormat((String)arguments[0],
+                            Arrays.copyOfRange(arguments, 1, arguments.length)).getMessage();
+                })
+                .collect(toList());
+    }
+
+    static class OrderService {
+        private final Logger log;
+
+        OrderService(Logger log) {
+            this.log = log;
+        }
+
+        @LogAfter(value = "Found {r} by {p0}", onCompletion = true)
+        CompletionStage<String> find(String id) {
+            return null;
+        }
+
+        @LogAfter(value = "Found {r} by {p0}", onCompletion = true)
+        @LogOnError("Couldn't find {p0}: {e.getClass().getSimpleName()} {e.getMessage()}")
+        CompletionStage<String> findOrFail(String id) {
+            return null;
+        }
+
+        @LogBefore(value = "Finding {p0}", when = "p0.startsWith(")
+        CompletionStage<String> findByInvalidCondition(String id) {
+            return null;
+        }
+
+        @LogSummary(intervalSeconds = 0, groupBy = "{p0.getType(}")
+        CompletionStage<String> summarize(String id) {
+            return null;
+        }
+
+        @LogBefore(value = "Finding {p0}", when = "p0.startsWith('id-')")
+        CompletionStage<String> findByPrefix(String id) {
+            return null;
+        }
+
+        @LogBefore(value = "Finding {p0}", when = "p0.substring(10) == 'x'")
+        CompletionStage<String> findBySuffix(String id) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogCaptureDecoderTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void decodesCapturedValues_intoMessagesFormattedLikeSlf4j() throws Exception {
+        var file = directory.resolve("capture.bin");
+        var captureFile = CaptureFile.create(settings(file, CaptureFile.SEGMENT_SIZE));
+        var definition = captureFile.define("find(String)@LogAfter[0]", "Found {} {} {} {} {} {} {}", 7);
+
+        definition.capture(Level.INFO, new Object[] { "order-1", 5, 7L, 0.5, true, null, new int[] { 1, 2 } });
+        definition.capture(Level.DEBUG, new Object[] { 'x', (short)1, (byte)2, 1.5f, List.of("a"), "", -1 });
+
+        var messages = LogCaptureDecoder.decode(file);
+
+        assertThat(messages).extracting(CapturedMessage::getMessage)
+                .containsExactly("Found order-1 5 7 0.5 true null [1, 2]", "Found x 1 2 1.5 [a]  -1");
+        assertThat(messages).extracting(CapturedMessage::getLevel).containsExactly(Level.INFO, Level.DEBUG);
+        assertThat(messages.get(0).getStatementId()).isEqualTo("find(String)@LogAfter[0]");
+        assertThat(messages.get(0).getTimestamp()).isNotNull();
+    }
+
+    @Test
+    void keepsNewestRecords_whenRingIsOverwritten() throws Exception {
+        var file = directory.resolve("capture.bin");
+        var captureFile = CaptureFile.create(settings(file, 2 * CaptureFile.SEGMENT_SIZE));
+        var definition = captureFile.define("find(String)@LogBefore[0]", "Finding {}", 1);
+
+        for(var i = 0; i < 10_000; i++) {
+            definition.capture(Level.DEBUG, new Object[] { i });
+        }
+
+        var messages = LogCaptureDecoder.decode(file);
+
+        assertThat(messages).hasSizeBetween(1, 9_999);
+        assertThat(messages.get(messages.size() - 1).getMessage()).isEqualTo("Finding 9999");
+        var first = Integer.parseInt(messages.get(0).getMessage().substring("Finding ".length()));
+        assertThat(messages).extracting(CapturedMessage::getMessage)
+                .containsExactlyElementsOf(() -> IntStream.range(first, 10_000)
+                        .mapToObj(i -> "Finding " + i).iterator());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "unknown level,          12, 1, 99",
+            "too many values,        13, 1, 120",
+            "unknown value tag,      24, 1, 77",
+            "negative string length, 25, 4, -1",
+            "string past record end, 25, 4, 1000000"
+    })
+    void skipsRestOfSegment_fromTornRecord(String tornPart, int offsetInRecord, int tornBytes, int tornValue) throws Exception {
+        var file = directory.resolve("capture.bin");
+        var captureFile = CaptureFile.create(settings(file, 2 * CaptureFile.SEGMENT_SIZE));
+        var definition = captureFile.define("find(String)@LogBefore[0]", "Finding {}", 1);
+
+        definition.capture(Level.INFO, new Object[] { "order-1" });
+        definition.capture(Level.INFO, new Object[] { "order-2" });
+        definition.capture(Level.INFO, new Object[] { "order-3" });
+        definition.capture(Level.INFO, new Object[] { "x".repeat(CaptureFile.SEGMENT_SIZE) });
+        captureFile.flush();
+
+        var secondRecordOffset = ringStart(file) + recordSize(file, ringStart(file));
+        var tornContent = ByteBuffer.allocate(4).order(CaptureFile.BYTE_ORDER).putInt(0, tornValue).limit(tornBytes);
+        writeAt(file, secondRecordOffset + offsetInRecord, tornContent);
+
+        var messages = LogCaptureDecoder.decode(file);
+
+        assertThat(messages).hasSize(2);
+        assertThat(messages.get(0).getMessage()).isEqualTo("Finding order-1");
+        assertThat(messages.get(1).getMessage()).startsWith("Finding xxx").endsWith("...");
+    }
+
+    @Test
+    void cutsStrings_notFittingInSegment() throws Exception {
+        var file = directory.resolve("capture.bin");
+        var captureFile = CaptureFile.create(settings(file, CaptureFile.SEGMENT_SIZE));
+        var definition = captureFile.define("load()@LogAfter[0]", "Loaded {} and {}", 2);
+
+        definition.capture(Level.INFO, new Object[] { "a".repeat(100_000), 42 });
+
+        var message = LogCaptureDecoder.decode(file).get(0).getMessage();
+        assertThat(message).startsWith("Loaded aaa").endsWith("... and 42").hasSizeLessThan(CaptureFile.SEGMENT_SIZE / 2);
+    }
+
+    @Test
+    void definesNoStatement_whenDictionaryIsFull() throws Exception {
+        var settings = CaptureSettings.builder().file(directory.resolve("capture.bin")).dictionaryBytes(64).build();
+        var captureFile = CaptureFile.create(settings);
+
+        assertThat(captureFile.define("a()@LogBefore[0]", "A", 0)).isNotNull();
+        assertThat(captureFile.define("b()@LogBefore[0]", "B", 0)).isNull();
+        assertThat(captureFile.define("a()@LogBefore[0]", "A", 0)).isNotNull();
+    }
+
+    @Test
+    void rejectsFile_notWrittenByCapture() throws Exception {
+        var file = Files.writeString(directory.resolve("other.txt"), "not a capture file at all, but long enough for a header");
+
+        assertThatThrownBy(() -> LogCaptureDecoder.decode(file)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int ringStart(Path file) throws Exception {
+        return CaptureFile.HEADER_SIZE + readInt(file, CaptureFile.DICTIONARY_CAPACITY_OFFSET);
+    }
+
+    private static int recordSize(Path file, int recordOffset) throws Exception {
+        return readInt(file, recordOffset);
+    }
+
+    private static int readInt(Path file, int offset) throws Exception {
+        try(var channel = FileChannel.open(file, READ)) {
+            var value = ByteBuffer.allocate(4).order(CaptureFile.BYTE_ORDER);
+            channel.read(value, offset);
+            return value.getInt(0);
+        }
+    }
+
+    private static void writeAt(Path file, int offset, ByteBuffer bytes) throws Exception {
+        try(var channel = FileChannel.open(file, WRITE)) {
+            channel.write(bytes, offset);
+        }
+    }
+
+    private static CaptureSettings settings(Path file, int capacityBytes) {
+        return CaptureSettings.builder().file(file).capacityBytes(capacityBytes).build();
+    }
+}
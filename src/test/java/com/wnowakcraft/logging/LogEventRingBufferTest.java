@@ -0,0 +1,82 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogEventRingBufferTest {
+
+    @Test
+    void roundsCapacityUpToPowerOfTwo() {
+        assertThat(new LogEventRingBuffer<String>(5).capacity()).isEqualTo(8);
+        assertThat(new LogEventRingBuffer<String>(8).capacity()).isEqualTo(8);
+    }
+
+    @Test
+    void returnsElementsInInsertionOrder_andNullWhenEmpty() {
+        var ringBuffer = new LogEventRingBuffer<String>(4);
+
+        ringBuffer.offer("first");
+        ringBuffer.offer("second");
+
+        assertThat(ringBuffer.poll()).isEqualTo("first");
+        assertThat(ringBuffer.poll()).isEqualTo("second");
+        assertThat(ringBuffer.poll()).isNull();
+        assertThat(ringBuffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsElementsWhenFull_untilSpaceIsReleased() {
+        var ringBuffer = new LogEventRingBuffer<Integer>(2);
+
+        assertThat(ringBuffer.offer(1)).isTrue();
+        assertThat(ringBuffer.offer(2)).isTrue();
+        assertThat(ringBuffer.offer(3)).isFalse();
+
+        assertThat(ringBuffer.poll()).isEqualTo(1);
+        assertThat(ringBuffer.offer(3)).isTrue();
+        assertThat(ringBuffer.poll()).isEqualTo(2);
+        assertThat(ringBuffer.poll()).isEqualTo(3);
+    }
+
+    @Test
+    void deliversEveryElementExactlyOnce_withConcurrentProducersAndConsumers() throws Exception {
+        var producers = 2;
+        var elementsPerProducer = 5_000;
+        var ringBuffer = new LogEventRingBuffer<Integer>(64);
+        var consumed = ConcurrentHashMap.<Integer>newKeySet();
+        var allConsumed = new CountDownLatch(producers * elementsPerProducer);
+        var executor = Executors.newFixedThreadPool(producers + 2);
+
+        for(var producer = 0; producer < producers; producer++) {
+            var firstElement = producer * elementsPerProducer;
+            executor.execute(() -> {
+                for(var element = firstElement; element < firstElement + elementsPerProducer; element++) {
+                    while(!ringBuffer.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+        for(var consumer = 0; consumer < 2; consumer++) {
+            executor.execute(() -> {
+                while(allConsumed.getCount() > 0) {
+                    var element = ringBuffer.poll();
+                    if(element != null && consumed.add(element)) {
+                        allConsumed.countDown();
+                    }
+                }
+            });
+        }
+
+        assertThat(allConsumed.await(30, TimeUnit.SECONDS)).isTrue();
+        executor.shutdownNow();
+        assertThat(consumed).hasSize(producers * elementsPerProducer);
+        assertThat(ringBuffer.isEmpty()).isTrue();
+    }
+}
@@ -1,5 +1,6 @@
 package com.wnowakcraft.logging;
 
+import com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
@@ -18,6 +19,15 @@ class LogMessageParamsResolverTest {
     private static final List<TestPerson> TEST_TWO_PERSONS = List.of(TEST_PERSON_1, TEST_PERSON_2);
     private static final int TEST_PERSON_1_INDEX = 0;
 
+    private static boolean isMet(String condition, Object[] methodArgs, Object result) {
+        var expressionResolver = ExpressionResolver.acquire(methodArgs, result);
+        try {
+            return expressionResolver.test(ExpressionResolver.compile(condition));
+        } finally {
+            expressionResolver.release();
+        }
+    }
+
     @Test
     void correctlyResolvesParamsFromMessageTemplate_withNoReturnValue() {
 
@@ -144,6 +154,65 @@ class LogMessageParamsResolverTest {
         assertThat(resolvedParams).isEmpty();
     }
 
+    @Test
+    void replacesExpressionsWithPlaceholdersInCleanMessageTemplate() {
+        String messageTemplate = "Input: { p0.getName() }, {p1}, {}, {not an expression}, Result = {r.getName()}";
+        var logMessageParamsResolver= new LogMessageParamsResolver(messageTemplate);
+
+        assertThat(logMessageParamsResolver.getCleanLogMessageTemplate())
+                .isEqualTo("Input: {}, {}, {}, {not an expression}, Result = {}");
+    }
+
+    @Test
+    void resolvesAliasedExpressions_andUsesAliasesAsKeys() {
+        String messageTemplate = "Person {name = p0.getName()} found: {found=r}";
+        var logMessageParamsResolver= new LogMessageParamsResolver(messageTemplate);
+
+        Object[] resolvedParams = logMessageParamsResolver.getParamsReferredInTemplate(new Object[] { TEST_PERSON_1 }, true);
+
+        assertThat(resolvedParams).containsExactly(TEST_PERSON_1.getName(), true);
+        assertThat(logMessageParamsResolver.getCleanLogMessageTemplate()).isEqualTo("Person {} found: {}");
+        assertThat(logMessageParamsResolver.getKeyValuesLogMessage()).isEqualTo("Person {name} found: {found}");
+        assertThat(logMessageParamsResolver.getKey(0)).isEqualTo("name");
+        assertThat(logMessageParamsResolver.getKey(1)).isEqualTo("found");
+    }
+
+    @Test
+    void derivesKeysOfExpressionsWithoutAliases() {
+        assertThat(LogMessageParamsResolver.deriveKey("p0")).isEqualTo("p0");
+        assertThat(LogMessageParamsResolver.deriveKey("p0.name")).isEqualTo("name");
+        assertThat(LogMessageParamsResolver.deriveKey("p0.getCustomer().getId()")).isEqualTo("id");
+        assertThat(LogMessageParamsResolver.deriveKey("r.isActive()")).isEqualTo("active");
+        assertThat(LogMessageParamsResolver.deriveKey("r.getItems()[0]")).isEqualTo("items");
+        assertThat(LogMessageParamsResolver.deriveKey("p1.getSuggested(p2)")).isEqualTo("suggested");
+        assertThat(LogMessageParamsResolver.deriveKey("p0.size()")).isEqualTo("size");
+    }
+
+    @Test
+    void compilesSameMessageTemplateOnlyOnce() {
+        String messageTemplate = "Compiled once: {p0.getName()}";
+
+        var logMessageParamsResolver = LogMessageParamsResolver.forMessageTemplate(messageTemplate);
+
+        assertThat(LogMessageParamsResolver.forMessageTemplate(messageTemplate)).isSameAs(logMessageParamsResolver);
+    }
+
+    @Test
+    void evaluatesConditions_evenWhenTheirRootParamIsNull() {
+        assertThat(isMet("p1 == null", new Object[] { TEST_PERSON_1, null }, NO_RETURN_VALUE)).isTrue();
+        assertThat(isMet("p1 == null", new Object[] { TEST_PERSON_1, TEST_PERSON_2 }, NO_RETURN_VALUE)).isFalse();
+        assertThat(isMet("r.size() > 1", new Object[0], TEST_TWO_PERSONS)).isTrue();
+        assertThat(isMet("r.size() > 1", new Object[0], NO_RETURN_VALUE)).isFalse();
+        assertThat(isMet("r == null", new Object[0], NO_RETURN_VALUE)).isTrue();
+        assertThat(isMet("r.name != 'testPerson1'", new Object[0], TEST_PERSON_2)).isTrue();
+        assertThat(isMet("p0.name", new Object[] { TEST_PERSON_1 }, NO_RETURN_VALUE)).isFalse();
+    }
+
+    @Test
+    void findsAllParamsReferredByCondition_skippingStringLiterals() {
+        assertThat(ExpressionResolver.getReferredParams("p1 == null || r.size() > 1000 && r.status != 'p2' && elapsed.toMillis() > p10"))
+                .containsExactly("p1", "r", "elapsed", "p10");
+    }
 
     @Getter
     @RequiredArgsConstructor
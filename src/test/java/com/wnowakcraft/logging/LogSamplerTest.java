@@ -0,0 +1,58 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplerTest {
+    private static final int NO_EVERY_NTH_LIMIT = 1;
+    private static final double NO_SAMPLE_RATE_LIMIT = 1.0;
+    private static final int NO_PER_SECOND_LIMIT = 0;
+    private final AtomicLong nanoClock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    @Test
+    void createsNoSampler_whenThereAreNoLimits() {
+        assertThat(LogSampler.of(NO_EVERY_NTH_LIMIT, NO_SAMPLE_RATE_LIMIT, NO_PER_SECOND_LIMIT)).isNull();
+    }
+
+    @Test
+    void samplesInEveryNthInvocation_startingWithTheFirstOne() {
+        var sampler = new LogSampler(3, NO_SAMPLE_RATE_LIMIT, NO_PER_SECOND_LIMIT, nanoClock::get);
+
+        var sampledIn = IntStream.range(0, 7).mapToObj(i -> sampler.sample());
+
+        assertThat(sampledIn).containsExactly(true, false, false, true, false, false, true);
+        assertThat(sampler.takeSuppressedCount()).isEqualTo(4);
+        assertThat(sampler.takeSuppressedCount()).isZero();
+    }
+
+    @Test
+    void samplesInAtMostMaxPerSecondInvocations_withinEverySecond() {
+        var sampler = new LogSampler(NO_EVERY_NTH_LIMIT, NO_SAMPLE_RATE_LIMIT, 2, nanoClock::get);
+
+        assertThat(sampler.sample()).isTrue();
+        assertThat(sampler.sample()).isTrue();
+        assertThat(sampler.sample()).isFalse();
+
+        nanoClock.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertThat(sampler.sample()).isFalse();
+
+        nanoClock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(sampler.sample()).isTrue();
+        assertThat(sampler.takeSuppressedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void samplesNothing_withZeroSampleRate() {
+        var sampler = new LogSampler(NO_EVERY_NTH_LIMIT, 0.0, NO_PER_SECOND_LIMIT, nanoClock::get);
+
+        var sampledIn = IntStream.range(0, 100).filter(i -> sampler.sample()).count();
+
+        assertThat(sampledIn).isZero();
+        assertThat(sampler.takeSuppressedCount()).isEqualTo(100);
+    }
+}
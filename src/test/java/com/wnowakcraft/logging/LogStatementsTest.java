@@ -0,0 +1,145 @@
+package com.wnowakcraft.logging;
+
+import com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class LogStatementsTest {
+    private static final String METHOD_NAME = "com.acme.LogStatementsTest.find(String)";
+
+    @AfterEach
+    void clearOverrides() {
+        LogStatements.clearOverrides();
+    }
+
+    @Test
+    void overridesStatement_byIdentifierTakingPrecedenceOverMethodName() {
+        var first = new FakeStatement(0, Level.DEBUG);
+        var second = new FakeStatement(1, Level.DEBUG);
+        LogStatements.register(first);
+        LogStatements.register(second);
+
+        LogStatements.override(METHOD_NAME, StatementOverride.builder().level(Level.INFO).build());
+        LogStatements.override(second.getId(), StatementOverride.builder().enabled(false).build());
+
+        assertThat(first.getSettings().getLevel()).isEqualTo(Level.INFO);
+        assertThat(first.getSettings().isEnabled()).isTrue();
+        assertThat(second.getSettings().getLevel()).isEqualTo(Level.DEBUG);
+        assertThat(second.getSettings().isEnabled()).isFalse();
+    }
+
+    @Test
+    void appliesPendingOverride_atRegistration() {
+        var statement = new FakeStatement(2, Level.DEBUG);
+
+        LogStatements.override(statement.getId(), StatementOverride.builder().level(Level.WARNING).sampleRate(0.5).build());
+        LogStatements.register(statement);
+
+        assertThat(statement.getSettings().getLevel()).isEqualTo(Level.WARNING);
+        assertThat(statement.getSettings().getSampler()).isNotNull();
+        assertThat(LogStatements.getStatements())
+                .filteredOn(info -> info.getId().equals(statement.getId()))
+                .singleElement()
+                .satisfies(info -> {
+                    assertThat(info.getAnnotatedLevel()).isEqualTo(Level.DEBUG);
+                    assertThat(info.getLevel()).isEqualTo(Level.WARNING);
+                    assertThat(info.isOverridden()).isTrue();
+                });
+    }
+
+    @Test
+    void restoresAnnotatedSettings_whenOverrideIsCleared() {
+        var statement = new FakeStatement(3, Level.DEBUG);
+        LogStatements.register(statement);
+        LogStatements.override(METHOD_NAME, StatementOverride.builder().enabled(false).build());
+
+        LogStatements.clearOverride(METHOD_NAME);
+
+        assertThat(statement.getSettings()).isSameAs(statement.getAnnotatedSettings());
+    }
+
+    @Test
+    void logsInvocation_atLevelOfSettingsItWasCheckedAgainst_whenOverriddenInTheMeantime() throws Exception {
+        var logBefore = LogStatementsTest.class.getDeclaredMethod("find", String.class).getAnnotation(LogBefore.class);
+        var statement = LogStatement.of(logBefore, METHOD_NAME, 0, new LoggingStats());
+        var logger = mock(Logger.class);
+
+        var settings = statement.getSettings();
+        statement.setSettings(settings.overriddenBy(StatementOverride.builder().level(Level.ERROR).build()));
+        statement.log(logger, settings, new Object[] { "id-1" }, null, ExpressionResolver.NOT_MEASURED);
+
+        verify(logger).info("Finding {}", (Object)"id-1");
+        verifyNoMoreInteractions(logger);
+    }
+
+    @Test
+    void rejectsOverride_withSamplingSettingsOutOfRange() {
+        assertThatThrownBy(() -> StatementOverride.builder().everyNth(0).build()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StatementOverride.builder().sampleRate(1.5).build()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StatementOverride.builder().sampleRate(Double.NaN).build()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StatementOverride.builder().maxPerSecond(-1).build()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(StatementOverride.builder().build().isEnabled()).isTrue();
+    }
+
+    @Test
+    void registersMBean() throws Exception {
+        LogStatements.getStatements();
+
+        assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(LogStatements.OBJECT_NAME))).isTrue();
+    }
+
+    @LogBefore(value = "Finding {p0}", level = Level.INFO)
+    void find(String id) { }
+
+    private static class FakeStatement implements ControlledStatement {
+        private final String id;
+        private final StatementSettings annotatedSettings;
+        private volatile StatementSettings settings;
+
+        FakeStatement(int index, Level level) {
+            this.id = ControlledStatement.idOf(METHOD_NAME, LogBefore.class, index);
+            this.annotatedSettings = new StatementSettings(true, level, null);
+            this.settings = annotatedSettings;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getMethodName() {
+            return METHOD_NAME;
+        }
+
+        @Override
+        public String getTemplate() {
+            return "Finding {p0}";
+        }
+
+        @Override
+        public StatementSettings getAnnotatedSettings() {
+            return annotatedSettings;
+        }
+
+        @Override
+        public StatementSettings getSettings() {
+            return settings;
+        }
+
+        @Override
+        public void setSettings(StatementSettings settings) {
+            this.settings = settings;
+        }
+    }
+}
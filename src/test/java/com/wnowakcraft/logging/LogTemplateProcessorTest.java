@@ -0,0 +1,222 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogTemplateProcessorTest {
+    @TempDir
+    Path classOutput;
+
+    @Test
+    void writesIndexOfValidTemplates() throws Exception {
+        var errors = compileAndGetErrors(
+                "@LogBefore(\"Finding {p0} in {p1.size()}\")",
+                "@LogAfter(value = \"Found {r}\", level = Level.INFO)",
+                "String find(String name, java.util.List<String> names) { return name; }"
+        );
+
+        assertThat(errors).isEmpty();
+        assertThat(Files.readAllLines(classOutput.resolve(LogTemplateIndex.INDEX_LOCATION), UTF_8))
+                .containsExactly(
+                        "sample.Sample\tfind\tjava.lang.String,java.util.List\tBEFORE\tDEBUG\tFinding {p0} in {p1.size()}",
+                        "sample.Sample\tfind\tjava.lang.String,java.util.List\tAFTER\tINFO\tFound {r}"
+                );
+    }
+
+    @Test
+    void failsOnReferenceToMissingParameter() {
+        var errors = compileAndGetErrors(
+                "@LogBefore(\"Finding {p1}\")",
+                "void find(String name) { }"
+        );
+
+        assertThat(errors).singleElement().asString().contains("refers to parameter p1");
+    }
+
+    @Test
+    void failsOnReferenceToParameterOfOverflowingIndex() {
+        var errors = compileAndGetErrors(
+                "@LogBefore(\"Finding {p99999999999}\")",
+                "void find(String name) { }"
+        );
+
+        assertThat(errors).singleElement().asString().contains("refers to parameter p99999999999");
+    }
+
+    @Test
+    void failsOnReferenceToReturnValueOfVoidMethod() {
+        var errors = compileAndGetErrors(
+                "@LogAfter(\"Found {r}\")",
+                "void find(String name) { }"
+        );
+
+        assertThat(errors).singleElement().asString().contains("method returning no result");
+    }
+
+    @Test
+    void failsOnReferenceToReturnValueBeforeMethodExecution() {
+        var errors = compileAndGetErrors(
+                "@LogBefore(\"Found {r}\")",
+                "String find(String name) { return name; }"
+        );
+
+        assertThat(errors).singleElement().asString().contains("not available before method execution");
+    }
+
+    @Test
+    void failsOnReferenceToElapsedTimeBeforeMethodExecution() {
+        var errors = compileAndGetErrors(
+                "@LogBefore(\"Finding in {elapsed.toMillis()} ms\")",
+                "@LogAfter(\"Found in {elapsed.toMillis()} ms\")",
+                "void find(String name) { }"
+        );
+
+        assertThat(errors).singleElement().asString().contains("refers to elapsed time");
+    }
+
+    @Test
+    void failsOnReferenceToExceptionOutsideOfErrorTemplate() {
+        var errors = compileAndGetErrors(
+                "@LogAfter(\"Found {e.getMessage()}\")",
+                "@LogOnError(\"Couldn't find {p0}: {e.getMessage()}\")",
+                "void find(String name) { }"
+        );
+
+        assertThat(errors).singleElement().asString().contains("available in @LogOnError templates only");
+    }
+
+    @Test
+    void failsOnCompletionStatementOfMethodNotReturningCompletionStage() {
+        var errors = compileAndGetErrors(
+                "@LogAfter(value = \"Found {r}\", onCompletion = true)",
+                "String find(String name) { return name; }",
+                "@LogAfter(value = \"Found {r}\", onCompletion = true)",
+                "java.util.concurrent.CompletableFuture<String> findAsync(String name) { return null; }"
+        );
+
+        assertThat(errors).singleElement().asString().contains("requires method returning java.util.concurrent.CompletionStage");
+    }
+
+    @Test
+    void failsOnCaptureOutputOfErrorStatement() {
+        var errors = compileAndGetErrors(
+                "@LogAfter(value = \"Found {p0}\", output = LogOutput.CAPTURE)",
+                "@LogOnError(value = \"Couldn't find {p0}\", output = LogOutput.CAPTURE)",
+                "void find(String name) { }"
+        );
+
+        assertThat(errors).singleElement().asString().contains("CAPTURE output is not supported by @LogOnError");
+    }
+
+    @Test
+    void failsOnSummaryGroupedByMoreThanSingleExpression() {
+        var errors = compileAndGetErrors(
+                "@LogSummary(groupBy = \"{p0}\")",
+                "void find(String name) { }",
+                "@LogSummary(groupBy = \"{p0} in {r}\")",
+                "String findOther(String name) { return name; }"
+        );
+
+        assertThat(errors).singleElement().asString().contains("must be a single expression");
+    }
+
+    @Test
+    void failsOnConditionReferringToReturnValueBeforeMethodExecution() {
+        var errors = compileAndGetErrors(
+                "@LogBefore(value = \"Finding {p0}\", when = \"p0 == null || r == 'x'\")",
+                "@LogAfter(value = \"Found {r}\", when = \"r.size() > 1000 && p0 != 'r'\")",
+                "String find(String name) { return name; }"
+        );
+
+        assertThat(errors).singleElement().asString().contains("refers to return value, which is not available before method execution");
+    }
+
+    @Test
+    void failsOnInvalidExpression() {
+        var errors = compileAndGetErrors(
+                "@LogBefore(\"Finding {p0.get(]}\")",
+                "void find(String name) { }"
+        );
+
+        assertThat(errors).singleElement().asString().contains("Invalid expression");
+    }
+
+    @Test
+    void writesAopXmlIncludingAnnotatedTypes_whenEnabled() throws Exception {
+        var errors = compileAndGetErrors(List.of("-AannotatedLogging.aopXml=true"),
+                "@Timed",
+                "void find(String name) { }",
+                "static class Nested {",
+                "    @LogBefore(\"Finding {p0}\")",
+                "    void find(String name) { }",
+                "}"
+        );
+
+        assertThat(errors).isEmpty();
+        assertThat(Files.readString(classOutput.resolve(AopXml.LOCATION)))
+                .contains("<aspect name=\"com.wnowakcraft.logging.LogAspect\"/>")
+                .contains("<include within=\"sample.Sample\"/>")
+                .contains("<include within=\"sample.Sample$Nested\"/>");
+    }
+
+    @Test
+    void doesntWriteAopXml_byDefault() {
+        compileAndGetErrors("@Timed", "void find(String name) { }");
+
+        assertThat(classOutput.resolve(AopXml.LOCATION)).doesNotExist();
+    }
+
+    private String[] compileAndGetErrors(String... sampleClassBody) {
+        return compileAndGetErrors(List.of(), sampleClassBody);
+    }
+
+    private String[] compileAndGetErrors(List<String> processorOptions, String... sampleClassBody) {
+        var source = "package sample;\n" +
+                "import com.wnowakcraft.logging.*;\n" +
+                "class Sample {\n" + String.join("\n", sampleClassBody) + "\n}";
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        var annotationsClassPath = new File(LogBefore.class.getProtectionDomain().getCodeSource().getLocation().getPath());
+
+        var options = new ArrayList<>(List.of("-classpath", annotationsClassPath.getPath(), "-d", classOutput.toString(), "-proc:only"));
+        options.addAll(processorOptions);
+
+        var task = ToolProvider.getSystemJavaCompiler().getTask(null, null, diagnostics,
+                options, null, List.of(new SourceFile(source)));
+        task.setProcessors(List.of(new LogTemplateProcessor()));
+        task.call();
+
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .toArray(String[]::new);
+    }
+
+    private static class SourceFile extends SimpleJavaFileObject {
+        private final String source;
+
+        private SourceFile(String source) {
+            super(URI.create("string:///sample/Sample.java"), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+}
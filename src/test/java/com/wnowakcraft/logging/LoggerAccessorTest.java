@@ -0,0 +1,66 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoggerAccessorTest {
+    private static final Object STATIC_CONTEXT = null;
+
+    @Test
+    void readsStaticLoggerField_evenInStaticContext() {
+        var logger = LoggerAccessor.of(WithStaticLogger.class).getLogger(STATIC_CONTEXT);
+
+        assertThat(logger).isSameAs(WithStaticLogger.log);
+    }
+
+    @Test
+    void readsInstanceLoggerField() {
+        var target = new WithInstanceLogger();
+
+        var logger = LoggerAccessor.of(WithInstanceLogger.class).getLogger(target);
+
+        assertThat(logger).isSameAs(target.log);
+    }
+
+    @Test
+    void readsLoggerFieldInheritedFromSuperclass() {
+        WithInstanceLogger target = new InheritingInstanceLogger();
+
+        var logger = LoggerAccessor.of(InheritingInstanceLogger.class).getLogger(target);
+
+        assertThat(logger).isSameAs(target.log);
+    }
+
+    @Test
+    void failsWhenInstanceLoggerIsUsedInStaticContext() {
+        var accessor = LoggerAccessor.of(WithInstanceLogger.class);
+
+        assertThatThrownBy(() -> accessor.getLogger(STATIC_CONTEXT)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void failsWhenThereIsNoLoggerField() {
+        var accessor = LoggerAccessor.of(WithNoLogger.class);
+
+        assertThatThrownBy(() -> accessor.getLogger(new WithNoLogger())).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static class WithStaticLogger {
+        private static final Logger log = LoggerFactory.getLogger(WithStaticLogger.class);
+    }
+
+    private static class WithInstanceLogger {
+        private final Logger log = LoggerFactory.getLogger(getClass());
+    }
+
+    private static class InheritingInstanceLogger extends WithInstanceLogger {
+    }
+
+    private static class WithNoLogger {
+        private final String log = "not a logger";
+    }
+}
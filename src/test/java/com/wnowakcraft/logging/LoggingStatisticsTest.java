@@ -0,0 +1,58 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoggingStatisticsTest {
+    private static final String METHOD_NAME = "sample.Sample.find(String)";
+
+    @Test
+    void returnsSnapshotOfRecordedStatistics_byMethodAndInTotal() {
+        var stats = LoggingStatistics.register(METHOD_NAME);
+        stats.reset();
+        stats.recordInvocation();
+        stats.recordInvocation();
+        stats.recordEmitted();
+        stats.recordSkippedByLevel();
+        stats.recordEvaluation(1500);
+        stats.recordFailure();
+
+        var snapshot = LoggingStatistics.getSnapshots().get(METHOD_NAME);
+
+        assertThat(snapshot.getInvocations()).isEqualTo(2);
+        assertThat(snapshot.getEmittedStatements()).isEqualTo(1);
+        assertThat(snapshot.getSkippedByLevel()).isEqualTo(1);
+        assertThat(snapshot.getSkippedBySampling()).isZero();
+        assertThat(snapshot.getEvaluationNanos()).isEqualTo(1500);
+        assertThat(snapshot.getFailures()).isEqualTo(1);
+        assertThat(LoggingStatistics.getTotal().getInvocations()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void clearsStatisticsOfMethodsAndTemplateCache_onReset() {
+        LoggingStatistics.register(METHOD_NAME).recordInvocation();
+        LogMessageParamsResolver.forMessageTemplate("Found {p0}");
+        LogMessageParamsResolver.forMessageTemplate("Found {p0}");
+
+        LoggingStatistics.reset();
+
+        assertThat(LoggingStatistics.getSnapshots().get(METHOD_NAME).getInvocations()).isZero();
+        assertThat(LoggingStatistics.getTemplateCacheHits()).isZero();
+        assertThat(LoggingStatistics.getTemplateCacheMisses()).isZero();
+    }
+
+    @Test
+    void exposesStatisticsAsPlatformMBean() throws Exception {
+        LoggingStatistics.register(METHOD_NAME).recordInvocation();
+
+        var total = (CompositeData)ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(LoggingStatistics.OBJECT_NAME), "Total");
+
+        assertThat((Long)total.get("invocations")).isGreaterThanOrEqualTo(1);
+    }
+}
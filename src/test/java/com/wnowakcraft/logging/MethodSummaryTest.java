@@ -0,0 +1,123 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MethodSummaryTest {
+    private static final String METHOD_NAME = "com.acme.PaymentService.process(String)";
+
+    @Test
+    void summarizesCallsFailuresAndNullResults() throws Exception {
+        var summary = new MethodSummary(METHOD_NAME, logSummary("notGrouped"), true);
+
+        summary.record(new Object[] { "CARD" }, "ok", false);
+        summary.record(new Object[] { "CARD" }, null, false);
+        summary.record(new Object[] { "BLIK" }, null, true);
+
+        assertThat(summary.takeSummary()).containsExactly(METHOD_NAME, 3L, 1L, 1L);
+    }
+
+    @Test
+    void summarizesTopGroups_andCountsTheRestAsOthers() throws Exception {
+        var summary = new MethodSummary(METHOD_NAME, logSummary("grouped"), false);
+
+        for(var i = 0; i < 5; i++) {
+            summary.record(new Object[] { "CARD" }, null, false);
+        }
+        summary.record(new Object[] { "BLIK" }, null, false);
+        summary.record(new Object[] { "BLIK" }, null, false);
+        summary.record(new Object[] { "TRANSFER" }, null, false);
+        summary.record(new Object[] { null }, null, false);
+
+        assertThat(summary.takeSummary()).containsExactly(METHOD_NAME, 9L, 0L, "CARD=5, BLIK=2, others=2");
+    }
+
+    @Test
+    void resetsCounts_afterEverySummary() throws Exception {
+        var summary = new MethodSummary(METHOD_NAME, logSummary("grouped"), false);
+        summary.record(new Object[] { "CARD" }, null, false);
+        summary.takeSummary();
+
+        assertThat(summary.takeSummary()).isNull();
+
+        summary.record(new Object[] { "BLIK" }, null, false);
+        assertThat(summary.takeSummary()).containsExactly(METHOD_NAME, 1L, 0L, "BLIK=1");
+    }
+
+    @Test
+    void countsNewGroupsAsOthers_whenTrackedGroupsLimitIsReached() throws Exception {
+        var summary = new MethodSummary(METHOD_NAME, logSummary("grouped"), false);
+        for(var i = 0; i < MethodSummary.MAX_TRACKED_GROUPS; i++) {
+            summary.record(new Object[] { "type-" + i }, null, false);
+            summary.record(new Object[] { "type-" + i }, null, false);
+        }
+
+        summary.record(new Object[] { "untracked" }, null, false);
+
+        var topGroups = (String)summary.takeSummary()[3];
+        assertThat(topGroups).endsWith("others=" + (2 * (MethodSummary.MAX_TRACKED_GROUPS - 2) + 1));
+    }
+
+    @Test
+    void groupsAllCallsAsUnavailable_whenGroupByDoesntCompile() throws Exception {
+        var summary = new MethodSummary(METHOD_NAME, logSummary("groupedByInvalidExpression"), false);
+
+        summary.record(new Object[] { "CARD" }, null, false);
+        summary.record(new Object[] { "BLIK" }, null, false);
+
+        assertThat(summary.takeSummary()).containsExactly(METHOD_NAME, 2L, 0L, "<unavailable>=2");
+    }
+
+    @Test
+    void losesNoGroupCalls_whenIdleGroupsAreClosedConcurrently() throws Exception {
+        var summary = new MethodSummary(METHOD_NAME, logSummary("grouped"), false);
+        var executor = Executors.newFixedThreadPool(4);
+        var recorders = IntStream.range(0, 4)
+                .mapToObj(thread -> CompletableFuture.runAsync(() -> {
+                    for(var i = 0; i < 100_000; i++) {
+                        summary.record(new Object[] { "type-" + i % 16 }, null, false);
+                    }
+                }, executor))
+                .toArray(CompletableFuture[]::new);
+        var allRecorded = CompletableFuture.allOf(recorders);
+
+        var groupCalls = 0L;
+        while(!allRecorded.isDone()) {
+            groupCalls += sumOfGroupCalls(summary.takeSummary());
+        }
+        executor.shutdown();
+        summary.record(new Object[] { "type-0" }, null, false);
+        groupCalls += sumOfGroupCalls(summary.takeSummary());
+
+        assertThat(groupCalls).isEqualTo(4 * 100_000 + 1);
+    }
+
+    @LogSummary
+    void notGrouped() { }
+
+    @LogSummary(groupBy = "{p0}", topGroups = 2)
+    void grouped() { }
+
+    @LogSummary(groupBy = "{p0.getType(}")
+    void groupedByInvalidExpression() { }
+
+    private static long sumOfGroupCalls(Object[] summary) {
+        if(summary == null || ((String)summary[3]).isEmpty()) {
+            return 0;
+        }
+
+        return Arrays.stream(((String)summary[3]).split(", "))
+                .mapToLong(group -> Long.parseLong(group.substring(group.indexOf('=') + 1)))
+                .sum();
+    }
+
+    private static LogSummary logSummary(String methodName) throws NoSuchMethodException {
+        return MethodSummaryTest.class.getDeclaredMethod(methodName).getAnnotation(LogSummary.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParamRendererTest {
+    private static final int GLOBAL = RenderLimits.GLOBAL;
+    private static final RenderingSettings NO_LIMITS = RenderingSettings.builder().build();
+
+    @Test
+    void passesValuesAsTheyAre_whenThereAreNoLimits() {
+        var renderer = new ParamRenderer(GLOBAL, GLOBAL, GLOBAL, GLOBAL, () -> NO_LIMITS);
+        var list = List.of(1, 2, 3);
+
+        assertThat(renderer.render(list)).isSameAs(list);
+    }
+
+    @Test
+    void rendersCollectionsMapsAndArrays_upToMaxElements() {
+        var renderer = new ParamRenderer(GLOBAL, 3, GLOBAL, GLOBAL, () -> NO_LIMITS);
+        var map = new LinkedHashMap<String, Integer>();
+        map.put("a", 1);
+        map.put("b", 2);
+
+        assertThat(renderer.render(numbers(100))).isEqualTo("[0, 1, 2, ... 97 more]");
+        assertThat(renderer.render(map)).isEqualTo("{a=1, b=2}");
+        assertThat(renderer.render(new int[] { 5, 6, 7, 8 })).isEqualTo("[5, 6, 7, ... 1 more]");
+        assertThat(renderer.render(new String[] { "x" })).isEqualTo("[x]");
+    }
+
+    @Test
+    void rendersNestedValues_upToMaxDepth() {
+        var renderer = new ParamRenderer(GLOBAL, GLOBAL, 2, GLOBAL, () -> NO_LIMITS);
+
+        var rendered = renderer.render(List.of(List.of(List.of(1)), Map.of("k", List.of(2))));
+
+        assertThat(rendered).isEqualTo("[[[...]], {k=[...]}]");
+    }
+
+    @Test
+    void cutsRenderedValues_atMaxLength() {
+        var renderer = new ParamRenderer(10, GLOBAL, GLOBAL, GLOBAL, () -> NO_LIMITS);
+
+        assertThat(renderer.render(numbers(1000))).isEqualTo("[0, 1, 2, ...");
+        assertThat(renderer.render("short")).isEqualTo("short");
+        assertThat(renderer.render("quite a long text")).isEqualTo("quite a lo...");
+        assertThat(renderer.render(new StringBuilder("quite a long text"))).isEqualTo("quite a lo...");
+        assertThat(renderer.render(42L)).isEqualTo(42L);
+    }
+
+    @Test
+    void rendersByteArrays_asLengthAndLeadingBytesInHex() {
+        var renderer = new ParamRenderer(GLOBAL, 10, GLOBAL, 2, () -> NO_LIMITS);
+        var lengthOnlyRenderer = new ParamRenderer(GLOBAL, 10, GLOBAL, 0, () -> NO_LIMITS);
+
+        assertThat(renderer.render(new byte[] { 1, (byte)0xab, 3 })).isEqualTo("byte[3] 01ab...");
+        assertThat(lengthOnlyRenderer.render(new byte[1024])).isEqualTo("byte[1024]");
+    }
+
+    @Test
+    void appliesGlobalLimits_notOverriddenByAnnotation() {
+        var settings = RenderingSettings.builder().maxElements(2).maxLength(20).build();
+        var renderer = new ParamRenderer(GLOBAL, 1, GLOBAL, GLOBAL, () -> settings);
+
+        assertThat(renderer.render(List.of("a", "b"))).isEqualTo("[a, ... 1 more]");
+        assertThat(renderer.render("a".repeat(25))).isEqualTo("a".repeat(20) + "...");
+    }
+
+    private static List<Integer> numbers(int count) {
+        return IntStream.range(0, count).boxed().collect(toList());
+    }
+}
@@ -0,0 +1,148 @@
+package com.wnowakcraft.logging;
+
+import com.wnowakcraft.logging.LogMessageParamsResolver.ExpressionResolver;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PropertyPathExpressionEngineTest {
+    private static final Object NO_RESULT = null;
+    private final RecordingEngine fallbackEngine = new RecordingEngine();
+    private final PropertyPathExpressionEngine engine = new PropertyPathExpressionEngine(fallbackEngine);
+
+    @Test
+    void evaluatesPropertiesAndMethodCalls_withNoFallbackEvaluation() {
+        var customer = new Customer("c-1", new Address("Warsaw"), true);
+
+        assertThat(evaluate("p0.id", customer)).isEqualTo("c-1");
+        assertThat(evaluate("p0.getAddress().city", customer)).isEqualTo("Warsaw");
+        assertThat(evaluate("p0.active", customer)).isEqualTo(true);
+        assertThat(evaluate("p0.id.length()", customer)).isEqualTo(3);
+        assertThat(evaluate("p0", customer)).isSameAs(customer);
+        assertThat(fallbackEngine.evaluations).isEmpty();
+    }
+
+    @Test
+    void returnsNull_whenAnyValueOnThePathIsNull() {
+        var customer = new Customer("c-1", null, false);
+
+        assertThat(evaluate("p0.address.city", customer)).isNull();
+        assertThat(evaluate("p0.address.city", (Object)null)).isNull();
+        assertThat(evaluate("p1.id", customer)).isNull();
+    }
+
+    @Test
+    void readsPropertiesOfMaps_andCallsMethodsOfInaccessibleImplementationsByTheirInterfaces() {
+        assertThat(evaluate("p0.orderId", Map.of("orderId", "o-1"))).isEqualTo("o-1");
+        assertThat(evaluate("p0.size()", List.of(1, 2))).isEqualTo(2);
+        assertThat(evaluate("p0.name", new HiddenNamed())).isEqualTo("hidden");
+        assertThat(fallbackEngine.evaluations).isEmpty();
+    }
+
+    @Test
+    void resolvesMembersPerRuntimeClass() {
+        var expression = engine.compile("p0.name");
+
+        assertThat(evaluate(expression, new HiddenNamed())).isEqualTo("hidden");
+        assertThat(evaluate(expression, new Address("Cracow"))).isEqualTo("address in Cracow");
+    }
+
+    @Test
+    void compilesExpressionsOfOtherSyntaxByFallbackEngine() {
+        engine.compile("p0.getSuggested(p1)");
+        engine.compile("p0.items[0]");
+
+        assertThat(fallbackEngine.compiled).containsExactly("p0.getSuggested(p1)", "p0.items[0]");
+    }
+
+    @Test
+    void evaluatesExpressionByFallbackEngine_whenMemberIsNotFoundInRuntimeClass() {
+        var result = evaluate("p0.city", new WithPublicField());
+
+        assertThat(result).isEqualTo(RecordingEngine.FALLBACK_VALUE);
+        assertThat(fallbackEngine.evaluations).containsExactly("p0.city");
+    }
+
+    @Test
+    void propagatesExceptionsThrownByMembers() {
+        assertThatThrownBy(() -> evaluate("p0.failing", new Failing()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("failing getter");
+    }
+
+    private Object evaluate(String expression, Object... methodArgs) {
+        return evaluate(engine.compile(expression), methodArgs);
+    }
+
+    private static Object evaluate(ExpressionEngine.Expression expression, Object... methodArgs) {
+        var resolver = ExpressionResolver.acquire(methodArgs, NO_RESULT);
+
+        try {
+            return expression.evaluate(resolver);
+        } finally {
+            resolver.release();
+        }
+    }
+
+    public interface Named {
+        String getName();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Customer {
+        private final String id;
+        private final Address address;
+        private final boolean active;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Address implements Named {
+        private final String city;
+
+        @Override
+        public String getName() {
+            return "address in " + city;
+        }
+    }
+
+    private static class HiddenNamed implements Named {
+        @Override
+        public String getName() {
+            return "hidden";
+        }
+    }
+
+    public static class WithPublicField {
+        public final String city = "Gdansk";
+    }
+
+    public static class Failing {
+        public String getFailing() {
+            throw new IllegalArgumentException("failing getter");
+        }
+    }
+
+    private static class RecordingEngine implements ExpressionEngine {
+        static final Object FALLBACK_VALUE = "fallback";
+        final List<String> compiled = new ArrayList<>();
+        final List<String> evaluations = new ArrayList<>();
+
+        @Override
+        public Expression compile(String expression) {
+            compiled.add(expression);
+            return resolver -> {
+                evaluations.add(expression);
+                return FALLBACK_VALUE;
+            };
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StackTraceThrottleTest {
+    private final AtomicLong nanoClock = new AtomicLong(TimeUnit.MINUTES.toNanos(100));
+    private final StackTraceThrottle throttle = new StackTraceThrottle(2, nanoClock::get);
+
+    @Test
+    void omitsStackTracesBeyondTheLimit_andCountsThem() {
+        assertThat(throttle.omittedStackTraces(IllegalStateException.class)).isZero();
+        assertThat(throttle.omittedStackTraces(IllegalStateException.class)).isZero();
+        assertThat(throttle.omittedStackTraces(IllegalStateException.class)).isEqualTo(1);
+        assertThat(throttle.omittedStackTraces(IllegalStateException.class)).isEqualTo(2);
+    }
+
+    @Test
+    void limitsEveryExceptionTypeSeparately() {
+        throttle.omittedStackTraces(IllegalStateException.class);
+        throttle.omittedStackTraces(IllegalStateException.class);
+
+        assertThat(throttle.omittedStackTraces(IllegalStateException.class)).isEqualTo(1);
+        assertThat(throttle.omittedStackTraces(IllegalArgumentException.class)).isZero();
+    }
+
+    @Test
+    void logsStackTracesAgain_inTheNextMinute() {
+        throttle.omittedStackTraces(IllegalStateException.class);
+        throttle.omittedStackTraces(IllegalStateException.class);
+        throttle.omittedStackTraces(IllegalStateException.class);
+
+        nanoClock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+        assertThat(throttle.omittedStackTraces(IllegalStateException.class)).isZero();
+    }
+
+    @Test
+    void neverLogsStackTraces_whenLimitIsZero() {
+        var noStackTraces = new StackTraceThrottle(0, nanoClock::get);
+
+        assertThat(noStackTraces.omittedStackTraces(IllegalStateException.class)).isEqualTo(1);
+    }
+}
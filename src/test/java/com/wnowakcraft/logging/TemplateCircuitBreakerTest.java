@@ -0,0 +1,69 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateCircuitBreakerTest {
+    private static final RuntimeException FAILURE = new IllegalStateException("failure");
+    private final AtomicLong nanoClock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+    private final TemplateFailureSettings settings = TemplateFailureSettings.builder()
+            .failureThreshold(2)
+            .retryAfter(Duration.ofSeconds(10))
+            .maxRetryAfter(Duration.ofSeconds(15))
+            .build();
+    private final TemplateCircuitBreaker circuitBreaker = new TemplateCircuitBreaker("{p0.fail()}", () -> settings, nanoClock::get);
+
+    @Test
+    void reportsFailuresBelowThreshold_andDegradesAtThreshold() {
+        assertThat(circuitBreaker.recordFailure(FAILURE)).isTrue();
+        assertThat(circuitBreaker.allowsEvaluation()).isTrue();
+
+        assertThat(circuitBreaker.recordFailure(FAILURE)).isFalse();
+        assertThat(circuitBreaker.allowsEvaluation()).isFalse();
+    }
+
+    @Test
+    void countsOnlyConsecutiveFailures() {
+        circuitBreaker.recordFailure(FAILURE);
+        circuitBreaker.recordSuccess();
+
+        assertThat(circuitBreaker.recordFailure(FAILURE)).isTrue();
+        assertThat(circuitBreaker.allowsEvaluation()).isTrue();
+    }
+
+    @Test
+    void retriesOnceAfterRetryPeriod_andRestoresOnSuccess() {
+        circuitBreaker.recordFailure(FAILURE);
+        circuitBreaker.recordFailure(FAILURE);
+
+        nanoClock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertThat(circuitBreaker.allowsEvaluation()).isTrue();
+        assertThat(circuitBreaker.allowsEvaluation()).isFalse();
+
+        circuitBreaker.recordSuccess();
+
+        assertThat(circuitBreaker.allowsEvaluation()).isTrue();
+        assertThat(circuitBreaker.recordFailure(FAILURE)).isTrue();
+    }
+
+    @Test
+    void doublesRetryPeriodUpToMaximum_whenRetryFails() {
+        circuitBreaker.recordFailure(FAILURE);
+        circuitBreaker.recordFailure(FAILURE);
+        nanoClock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        circuitBreaker.allowsEvaluation();
+
+        assertThat(circuitBreaker.recordFailure(FAILURE)).isFalse();
+
+        nanoClock.addAndGet(TimeUnit.SECONDS.toNanos(14));
+        assertThat(circuitBreaker.allowsEvaluation()).isFalse();
+        nanoClock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(circuitBreaker.allowsEvaluation()).isTrue();
+    }
+}
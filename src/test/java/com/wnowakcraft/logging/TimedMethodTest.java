@@ -0,0 +1,56 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TimedMethodTest {
+    private static final String METHOD_NAME = "com.acme.OrderService.findOrder(String)";
+    private final Logger logger = mock(Logger.class);
+    private final TimedMethod timedMethod = new TimedMethod(METHOD_NAME, Level.INFO);
+
+    @BeforeEach
+    void setUp() {
+        when(logger.isInfoEnabled()).thenReturn(true);
+        timedMethod.setLogger(logger);
+    }
+
+    @Test
+    void reportsLatenciesOfInvocationsSinceLastReport_only() {
+        timedMethod.record(100);
+        timedMethod.record(200);
+        timedMethod.report();
+        timedMethod.record(300);
+        timedMethod.report();
+
+        var snapshots = ArgumentCaptor.forClass(LatencySnapshot.class);
+        verify(logger, times(2)).info(eq("Latency of {}: {}"), eq(METHOD_NAME), snapshots.capture());
+        assertThat(snapshots.getAllValues()).extracting(LatencySnapshot::getCount).containsExactly(2L, 1L);
+        assertThat(snapshots.getAllValues()).extracting(LatencySnapshot::getMaxNanos).containsExactly(200L, 300L);
+        assertThat(timedMethod.snapshot().getCount()).isEqualTo(3);
+    }
+
+    @Test
+    void skipsReport_whenNothingWasInvokedSinceLastReport() {
+        timedMethod.record(100);
+        timedMethod.report();
+        timedMethod.report();
+
+        verify(logger, times(1)).info(eq("Latency of {}: {}"), eq(METHOD_NAME), any(LatencySnapshot.class));
+    }
+
+    @Test
+    void reportsNothing_afterReset() {
+        timedMethod.record(100);
+        timedMethod.reset();
+        timedMethod.report();
+
+        verify(logger, never()).info(anyString(), any(), any());
+        assertThat(timedMethod.snapshot().getCount()).isZero();
+    }
+}
@@ -0,0 +1,104 @@
+package com.wnowakcraft.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeavingScopeTest {
+    private final String originalConfiguration = System.getProperty(WeavingScope.CONFIGURATION_PROPERTY);
+
+    @TempDir
+    Path classPath;
+
+    @AfterEach
+    void restoreConfiguration() {
+        if(originalConfiguration != null) {
+            System.setProperty(WeavingScope.CONFIGURATION_PROPERTY, originalConfiguration);
+        } else {
+            System.clearProperty(WeavingScope.CONFIGURATION_PROPERTY);
+        }
+    }
+
+    @Test
+    void declaresAspectAndIncludesPackagesAndTypes_sortedWithoutDuplicates() {
+        var aopXml = WeavingScope.create()
+                .includeType("com.acme.orders.OrderService")
+                .includePackage("com.acme.customers")
+                .includeType("com.acme.orders.OrderService")
+                .toAopXml();
+
+        assertThat(aopXml).isEqualTo(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<aspectj>\n" +
+                "    <aspects>\n" +
+                "        <aspect name=\"com.wnowakcraft.logging.LogAspect\"/>\n" +
+                "    </aspects>\n" +
+                "    <weaver>\n" +
+                "        <include within=\"com.acme.customers..*\"/>\n" +
+                "        <include within=\"com.acme.orders.OrderService\"/>\n" +
+                "    </weaver>\n" +
+                "</aspectj>\n");
+    }
+
+    @Test
+    void includesNothing_whenScopeIsEmpty() {
+        assertThat(WeavingScope.create().toAopXml())
+                .contains("<aspect name=\"com.wnowakcraft.logging.LogAspect\"/>")
+                .doesNotContain("<include");
+    }
+
+    @Test
+    void escapesIncludedTypePatterns() {
+        assertThat(AopXml.of(List.of("com.acme.Box<\"&\">")))
+                .contains("<include within=\"com.acme.Box&lt;&quot;&amp;&quot;&gt;\"/>");
+    }
+
+    @Test
+    void includesIndexedTypes_byTheirBinaryNames() throws Exception {
+        var index = classPath.resolve(LogTemplateIndex.INDEX_LOCATION);
+        Files.createDirectories(index.getParent());
+        Files.writeString(index,
+                "com.acme.OrderService\tfind\tjava.lang.String\tBEFORE\tINFO\tFinding {p0}\n" +
+                "com.acme.OrderService$Validator\tvalidate\tcom.acme.Order\tERROR\tERROR\tInvalid {p0}\n" +
+                "com.acme.OrderService\tsave\tcom.acme.Order\tAFTER\tDEBUG\tSaved {p0}\n");
+
+        try(var classLoader = new URLClassLoader(new URL[] { classPath.toUri().toURL() }, null)) {
+            var aopXml = WeavingScope.create().includeIndexedTypes(classLoader).toAopXml();
+
+            assertThat(aopXml)
+                    .contains("<include within=\"com.acme.OrderService\"/>")
+                    .contains("<include within=\"com.acme.OrderService$Validator\"/>");
+            assertThat(aopXml.split("<include ", -1)).hasSize(3);
+        }
+    }
+
+    @Test
+    void installsConfiguration_beforeCurrentConfigurationFiles() throws Exception {
+        System.setProperty(WeavingScope.CONFIGURATION_PROPERTY, "META-INF/custom-aop.xml");
+        var scope = WeavingScope.create().includePackage("com.acme.orders");
+
+        var aopXml = scope.install();
+
+        assertThat(Files.readString(aopXml)).isEqualTo(scope.toAopXml());
+        assertThat(System.getProperty(WeavingScope.CONFIGURATION_PROPERTY))
+                .isEqualTo(aopXml.toUri() + ";META-INF/custom-aop.xml");
+    }
+
+    @Test
+    void installsConfiguration_beforeDefaultConfigurationFiles_whenNoneAreSet() throws Exception {
+        System.clearProperty(WeavingScope.CONFIGURATION_PROPERTY);
+
+        var aopXml = WeavingScope.create().includeType("com.acme.orders.OrderService").install();
+
+        assertThat(System.getProperty(WeavingScope.CONFIGURATION_PROPERTY))
+                .isEqualTo(aopXml.toUri() + ";META-INF/aop.xml;META-INF/aop-ajc.xml;org/aspectj/aop.xml");
+    }
+}